@@ -0,0 +1,656 @@
+import java.util.NoSuchElementException;
+
+/**
+ * BPlusTreeST class
+ * Defined as: an ordered symbol table kept in a B+-tree. Every pair lives in a leaf,
+ * a sorted array of up to M - 1 keys with a parallel array of values, and the leaves
+ * are linked in key order. Inner nodes hold up to M - 1 children with the separating
+ * keys between them and the number of pairs below each child, so rank and select
+ * walk the same root-to-leaf path as get. With M = 64 the tree is a few levels deep
+ * even for millions of keys, each level is one binary search in a small array, and
+ * keys(lo, hi) finds lo once and then reads along the leaves without going back up.
+ * fromSorted builds the whole tree bottom-up from sorted input in O(n).
+ * Java keeps references to the keys rather than the keys themselves in the arrays,
+ * so M is chosen for shallow trees rather than to fit a cache line exactly.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class BPlusTreeST<Key extends Comparable<Key>, Value> implements OrderedSymbolTable<Key, Value> {
+
+    private static final int M = 64; // a node is split when it reaches M pairs or children
+    private static final int MIN = M / 2 - 1; // fewest pairs or children of a node other than the root
+    private static final int FILL = 3 * M / 4; // pairs or children per node when bulk loading
+
+    private Node root;
+    private Leaf first; // leftmost leaf; merges always drop the right node, so it never changes
+    private int size;
+
+    // results passed back up the path by put and delete
+    private boolean changed; // a pair was added or removed
+    private Key promoted; // separator for the node a split just made
+
+    BPlusTreeST() {
+        first = new Leaf();
+        root = first;
+    }
+
+    // table holding keys[i] -> vals[i], built in O(n); keys must be in strictly ascending order
+    static <Key extends Comparable<Key>, Value> BPlusTreeST<Key, Value> fromSorted(Key[] keys, Value[] vals) {
+        if (keys.length != vals.length) {
+            throw new IllegalArgumentException("keys and values differ in length");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || vals[i] == null) {
+                throw new IllegalArgumentException("value or key cannot be null");
+            }
+            if (i > 0 && keys[i - 1].compareTo(keys[i]) >= 0) {
+                throw new IllegalArgumentException("keys are not in strictly ascending order");
+            }
+        }
+
+        BPlusTreeST<Key, Value> st = new BPlusTreeST<>();
+        if (keys.length > 0) {
+            st.load(keys, vals);
+        }
+        return st;
+    }
+
+    private abstract class Node {
+
+        protected final Key[] keys = (Key[]) new Comparable[M];
+        protected int n; // pairs in a leaf, children of an inner node
+    }
+
+    private class Leaf extends Node {
+
+        private final Value[] vals = (Value[]) new Object[M];
+        private Leaf prev, next;
+
+        // index of key, or -(insertion point + 1) if it is not here
+        int search(Key key) {
+            int lo = 0;
+            int hi = n - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = key.compareTo(keys[mid]);
+                if (cmp < 0) {
+                    hi = mid - 1;
+                } else if (cmp > 0) {
+                    lo = mid + 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        void insert(int i, Key key, Value val) {
+            System.arraycopy(keys, i, keys, i + 1, n - i);
+            System.arraycopy(vals, i, vals, i + 1, n - i);
+            keys[i] = key;
+            vals[i] = val;
+            n++;
+        }
+
+        void remove(int i) {
+            System.arraycopy(keys, i + 1, keys, i, n - i - 1);
+            System.arraycopy(vals, i + 1, vals, i, n - i - 1);
+            n--;
+            keys[n] = null;
+            vals[n] = null;
+        }
+
+        // move the upper half into a new leaf to the right
+        Leaf split() {
+            Leaf right = new Leaf();
+            int h = n / 2;
+            right.n = n - h;
+            System.arraycopy(keys, h, right.keys, 0, right.n);
+            System.arraycopy(vals, h, right.vals, 0, right.n);
+            for (int i = h; i < n; i++) {
+                keys[i] = null;
+                vals[i] = null;
+            }
+            n = h;
+
+            right.next = next;
+            right.prev = this;
+            if (next != null) {
+                next.prev = right;
+            }
+            next = right;
+            promoted = right.keys[0];
+            return right;
+        }
+    }
+
+    private class Inner extends Node {
+
+        // child i holds the keys k with keys[i - 1] <= k < keys[i]
+        private final Node[] children = (Node[]) new BPlusTreeST.Node[M];
+        private final int[] counts = new int[M]; // pairs below each child
+
+        // index of the child whose range holds key
+        int child(Key key) {
+            int lo = 0;
+            int hi = n - 2;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (key.compareTo(keys[mid]) < 0) {
+                    hi = mid - 1;
+                } else {
+                    lo = mid + 1;
+                }
+            }
+            return lo;
+        }
+
+        // child i has split: add its new right sibling after it
+        void insert(int i, Key separator, Node sibling) {
+            System.arraycopy(children, i + 1, children, i + 2, n - i - 1);
+            System.arraycopy(counts, i + 1, counts, i + 2, n - i - 1);
+            System.arraycopy(keys, i, keys, i + 1, n - i - 1);
+            children[i + 1] = sibling;
+            counts[i + 1] = count(sibling);
+            counts[i] -= counts[i + 1];
+            keys[i] = separator;
+            n++;
+        }
+
+        // move the upper half of the children into a new node to the right; the
+        // separator between the halves moves up to the parent
+        Inner split() {
+            Inner right = new Inner();
+            int h = n / 2;
+            right.n = n - h;
+            System.arraycopy(children, h, right.children, 0, right.n);
+            System.arraycopy(counts, h, right.counts, 0, right.n);
+            System.arraycopy(keys, h, right.keys, 0, right.n - 1);
+            promoted = keys[h - 1];
+            for (int i = h; i < n; i++) {
+                children[i] = null;
+                keys[i - 1] = null;
+            }
+            n = h;
+            return right;
+        }
+
+        // child i has fewer than MIN pairs or children: merge it with a neighbour, or
+        // take one from the neighbour if together they would not fit in one node
+        void rebalance(int i) {
+            int l = i > 0 ? i - 1 : i;
+            Node left = children[l];
+            Node right = children[l + 1];
+            if (left.n + right.n < M) {
+                merge(l);
+            } else if (left.n < right.n) {
+                shiftLeft(l);
+            } else {
+                shiftRight(l);
+            }
+        }
+
+        // append child l + 1 to child l and drop it
+        private void merge(int l) {
+            Node left = children[l];
+            Node right = children[l + 1];
+            if (left instanceof Leaf) {
+                Leaf a = (Leaf) left;
+                Leaf b = (Leaf) right;
+                System.arraycopy(b.keys, 0, a.keys, a.n, b.n);
+                System.arraycopy(b.vals, 0, a.vals, a.n, b.n);
+                a.n += b.n;
+                a.next = b.next;
+                if (b.next != null) {
+                    b.next.prev = a;
+                }
+            } else {
+                Inner a = (Inner) left;
+                Inner b = (Inner) right;
+                a.keys[a.n - 1] = keys[l];
+                System.arraycopy(b.keys, 0, a.keys, a.n, b.n - 1);
+                System.arraycopy(b.children, 0, a.children, a.n, b.n);
+                System.arraycopy(b.counts, 0, a.counts, a.n, b.n);
+                a.n += b.n;
+            }
+
+            counts[l] += counts[l + 1];
+            System.arraycopy(children, l + 2, children, l + 1, n - l - 2);
+            System.arraycopy(counts, l + 2, counts, l + 1, n - l - 2);
+            System.arraycopy(keys, l + 1, keys, l, n - l - 2);
+            n--;
+            children[n] = null;
+            keys[n - 1] = null;
+        }
+
+        // move the first pair or child of child l + 1 to the end of child l
+        private void shiftLeft(int l) {
+            int moved;
+            if (children[l] instanceof Leaf) {
+                Leaf a = (Leaf) children[l];
+                Leaf b = (Leaf) children[l + 1];
+                a.keys[a.n] = b.keys[0];
+                a.vals[a.n] = b.vals[0];
+                a.n++;
+                b.remove(0);
+                keys[l] = b.keys[0];
+                moved = 1;
+            } else {
+                Inner a = (Inner) children[l];
+                Inner b = (Inner) children[l + 1];
+                a.keys[a.n - 1] = keys[l];
+                a.children[a.n] = b.children[0];
+                a.counts[a.n] = b.counts[0];
+                a.n++;
+                keys[l] = b.keys[0];
+                moved = b.counts[0];
+                System.arraycopy(b.children, 1, b.children, 0, b.n - 1);
+                System.arraycopy(b.counts, 1, b.counts, 0, b.n - 1);
+                System.arraycopy(b.keys, 1, b.keys, 0, b.n - 2);
+                b.n--;
+                b.children[b.n] = null;
+                b.keys[b.n - 1] = null;
+            }
+            counts[l] += moved;
+            counts[l + 1] -= moved;
+        }
+
+        // move the last pair or child of child l to the front of child l + 1
+        private void shiftRight(int l) {
+            int moved;
+            if (children[l] instanceof Leaf) {
+                Leaf a = (Leaf) children[l];
+                Leaf b = (Leaf) children[l + 1];
+                b.insert(0, a.keys[a.n - 1], a.vals[a.n - 1]);
+                a.remove(a.n - 1);
+                keys[l] = b.keys[0];
+                moved = 1;
+            } else {
+                Inner a = (Inner) children[l];
+                Inner b = (Inner) children[l + 1];
+                System.arraycopy(b.children, 0, b.children, 1, b.n);
+                System.arraycopy(b.counts, 0, b.counts, 1, b.n);
+                System.arraycopy(b.keys, 0, b.keys, 1, b.n - 1);
+                b.children[0] = a.children[a.n - 1];
+                b.counts[0] = a.counts[a.n - 1];
+                b.keys[0] = keys[l];
+                b.n++;
+                keys[l] = a.keys[a.n - 2];
+                moved = a.counts[a.n - 1];
+                a.n--;
+                a.children[a.n] = null;
+                a.keys[a.n - 1] = null;
+            }
+            counts[l] -= moved;
+            counts[l + 1] += moved;
+        }
+    }
+
+    // pairs below x
+    private int count(Node x) {
+        if (x instanceof Leaf) {
+            return x.n;
+        }
+        Inner in = (Inner) x;
+        int total = 0;
+        for (int i = 0; i < in.n; i++) {
+            total += in.counts[i];
+        }
+        return total;
+    }
+
+    // leaf whose range holds key
+    private Leaf leaf(Key key) {
+        Node x = root;
+        while (x instanceof Inner) {
+            Inner in = (Inner) x;
+            x = in.children[in.child(key)];
+        }
+        return (Leaf) x;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Value get(Key key) {
+        Leaf leaf = leaf(key);
+        int i = leaf.search(key);
+        return i >= 0 ? leaf.vals[i] : null;
+    }
+
+    @Override
+    public boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void put(Key key, Value val) {
+        if (val == null || key == null) {
+            throw new IllegalArgumentException("value or key cannot be null");
+        }
+
+        changed = false;
+        Node sibling = put(root, key, val);
+        if (changed) {
+            size++;
+        }
+        if (sibling != null) {
+            // the root split: grow the tree by one level
+            Inner in = new Inner();
+            in.children[0] = root;
+            in.counts[0] = count(root);
+            in.children[1] = sibling;
+            in.counts[1] = count(sibling);
+            in.keys[0] = promoted;
+            in.n = 2;
+            root = in;
+        }
+    }
+
+    // put key-value pair below x; returns the new right sibling if x split
+    private Node put(Node x, Key key, Value val) {
+        if (x instanceof Leaf) {
+            Leaf leaf = (Leaf) x;
+            int i = leaf.search(key);
+            if (i >= 0) {
+                leaf.vals[i] = val;
+                return null;
+            }
+            leaf.insert(-(i + 1), key, val);
+            changed = true;
+            return leaf.n == M ? leaf.split() : null;
+        }
+
+        Inner in = (Inner) x;
+        int i = in.child(key);
+        Node sibling = put(in.children[i], key, val);
+        if (changed) {
+            in.counts[i]++;
+        }
+        if (sibling == null) {
+            return null;
+        }
+        in.insert(i, promoted, sibling);
+        return in.n == M ? in.split() : null;
+    }
+
+    @Override
+    public void delete(Key key) {
+        changed = false;
+        delete(root, key);
+        if (!changed) {
+            return;
+        }
+        size--;
+        if (root instanceof Inner && root.n == 1) {
+            // the root's last two children merged: shrink the tree by one level
+            root = ((Inner) root).children[0];
+        }
+    }
+
+    private void delete(Node x, Key key) {
+        if (x instanceof Leaf) {
+            Leaf leaf = (Leaf) x;
+            int i = leaf.search(key);
+            if (i >= 0) {
+                leaf.remove(i);
+                changed = true;
+            }
+            return;
+        }
+
+        Inner in = (Inner) x;
+        int i = in.child(key);
+        delete(in.children[i], key);
+        if (!changed) {
+            return;
+        }
+        in.counts[i]--;
+        if (in.children[i].n < MIN) {
+            in.rebalance(i);
+        }
+    }
+
+    @Override
+    public void deleteMin() {
+        delete(min());
+    }
+
+    @Override
+    public void deleteMax() {
+        delete(max());
+    }
+
+    @Override
+    public Key min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("symbol table is empty");
+        }
+        return first.keys[0];
+    }
+
+    @Override
+    public Key max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("symbol table is empty");
+        }
+        Node x = root;
+        while (x instanceof Inner) {
+            x = ((Inner) x).children[x.n - 1];
+        }
+        return x.keys[x.n - 1];
+    }
+
+    @Override
+    public Key floor(Key key) {
+        Leaf leaf = leaf(key);
+        int i = leaf.search(key);
+        if (i >= 0) {
+            return leaf.keys[i];
+        }
+        i = -(i + 1);
+        if (i > 0) {
+            return leaf.keys[i - 1];
+        }
+        // every key in this leaf is larger; only the root leaf can be empty
+        return leaf.prev == null ? null : leaf.prev.keys[leaf.prev.n - 1];
+    }
+
+    @Override
+    public Key ceiling(Key key) {
+        Leaf leaf = leaf(key);
+        int i = leaf.search(key);
+        if (i >= 0) {
+            return leaf.keys[i];
+        }
+        i = -(i + 1);
+        if (i < leaf.n) {
+            return leaf.keys[i];
+        }
+        return leaf.next == null ? null : leaf.next.keys[0];
+    }
+
+    @Override
+    public int rank(Key key) {
+        // number of keys less than key
+        int r = 0;
+        Node x = root;
+        while (x instanceof Inner) {
+            Inner in = (Inner) x;
+            int i = in.child(key);
+            for (int j = 0; j < i; j++) {
+                r += in.counts[j];
+            }
+            x = in.children[i];
+        }
+        int i = ((Leaf) x).search(key);
+        return r + (i >= 0 ? i : -(i + 1));
+    }
+
+    @Override
+    public Key select(int k) {
+        if (k < 0 || k >= size) {
+            throw new IllegalArgumentException("rank " + k + " is out of range");
+        }
+        Node x = root;
+        while (x instanceof Inner) {
+            Inner in = (Inner) x;
+            int i = 0;
+            while (k >= in.counts[i]) {
+                k -= in.counts[i];
+                i++;
+            }
+            x = in.children[i];
+        }
+        return x.keys[k];
+    }
+
+    @Override
+    public int size(Key lo, Key hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        } else if (contains(hi)) {
+            return rank(hi) - rank(lo) + 1;
+        } else {
+            return rank(hi) - rank(lo);
+        }
+    }
+
+    @Override
+    public Iterable<Key> keys() {
+        return () -> cursor().keyIterator();
+    }
+
+    // keys in [lo..hi], read lazily along the leaves
+    @Override
+    public Iterable<Key> keys(Key lo, Key hi) {
+        return () -> new LeafCursor(lo, hi).keyIterator();
+    }
+
+    // cursor over every pair in key order
+    @Override
+    public MapCursor<Key, Value> cursor() {
+        return new LeafCursor(null, null);
+    }
+
+    // build the tree bottom-up: fill the leaves from the sorted arrays, then each level
+    // of inner nodes from the one below, until a level has a single node
+    private void load(Key[] keys, Value[] vals) {
+        int n = keys.length;
+        int groups = groups(n);
+        Node[] level = new BPlusTreeST.Node[groups];
+        Key[] lows = (Key[]) new Comparable[groups]; // smallest key below each node
+
+        Leaf prev = null;
+        for (int g = 0, from = 0; g < groups; g++) {
+            int to = (int) ((long) n * (g + 1) / groups);
+            Leaf leaf = new Leaf();
+            leaf.n = to - from;
+            System.arraycopy(keys, from, leaf.keys, 0, leaf.n);
+            System.arraycopy(vals, from, leaf.vals, 0, leaf.n);
+            leaf.prev = prev;
+            if (prev != null) {
+                prev.next = leaf;
+            } else {
+                first = leaf;
+            }
+            prev = leaf;
+            level[g] = leaf;
+            lows[g] = keys[from];
+            from = to;
+        }
+
+        while (level.length > 1) {
+            int c = level.length;
+            groups = groups(c);
+            Node[] up = new BPlusTreeST.Node[groups];
+            Key[] upLows = (Key[]) new Comparable[groups];
+            for (int g = 0, from = 0; g < groups; g++) {
+                int to = (int) ((long) c * (g + 1) / groups);
+                Inner in = new Inner();
+                in.n = to - from;
+                for (int j = from; j < to; j++) {
+                    in.children[j - from] = level[j];
+                    in.counts[j - from] = count(level[j]);
+                    if (j > from) {
+                        in.keys[j - from - 1] = lows[j];
+                    }
+                }
+                up[g] = in;
+                upLows[g] = lows[from];
+                from = to;
+            }
+            level = up;
+            lows = upLows;
+        }
+
+        root = level[0];
+        size = n;
+    }
+
+    // how many nodes to share n pairs or children between: about FILL each, but never
+    // fewer than MIN or more than M - 1
+    private static int groups(int n) {
+        return Math.max(1, Math.min((n + FILL - 1) / FILL, n / MIN));
+    }
+
+    // cursor along the linked leaves, from the first key >= lo (or the very first key)
+    // until the first key > hi (or the end)
+    private class LeafCursor implements MapCursor<Key, Value> {
+        private final Key hi;
+        private Leaf leaf;
+        private int i; // index of the next pair in leaf
+        private Key key;
+        private Value val;
+
+        LeafCursor(Key lo, Key hi) {
+            this.hi = hi;
+            if (lo == null) {
+                leaf = first;
+            } else {
+                leaf = leaf(lo);
+                int j = leaf.search(lo);
+                i = j >= 0 ? j : -(j + 1);
+            }
+        }
+
+        @Override
+        public boolean advance() {
+            if (leaf != null && i == leaf.n) {
+                // leaves other than an empty root are never empty
+                leaf = leaf.next;
+                i = 0;
+            }
+            if (leaf == null || (hi != null && hi.compareTo(leaf.keys[i]) < 0)) {
+                leaf = null;
+                return false;
+            }
+            key = leaf.keys[i];
+            val = leaf.vals[i];
+            i++;
+            return true;
+        }
+
+        @Override
+        public Key key() {
+            return key;
+        }
+
+        @Override
+        public Value value() {
+            return val;
+        }
+    }
+
+}
@@ -0,0 +1,362 @@
+/**
+ * CachingSymbolTable class
+ * Defined as: a symbol table that holds at most capacity pairs. Each pair lives in a
+ * LinearNode of a doubly linked recency list, and a LinearProbingHT maps every key to
+ * its node, so finding, reordering and evicting a pair are all constant time.
+ * With the LRU policy a full cache evicts the least recently used pair. With TINY_LFU
+ * (W-TinyLFU) new pairs first enter a small LRU window (1% of the capacity); a pair
+ * pushed out of the window only enters the main area if a count-min sketch of recent
+ * key frequencies says it is used more often than the pair it would evict there.
+ * The main area is split into a probation and a protected segment (20% and 80%), and
+ * a pair is promoted to protected when it is used again while on probation.
+ * get() counts hits and misses; contains() and keys() leave recency alone.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class CachingSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+  public enum Policy { LRU, TINY_LFU }
+
+  // which list a node is on
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  // Member variables
+  private final int capacity;
+  private final Policy policy;
+  private final LinearProbingHT<Key, LinearNode<Entry<Key,Value>>> index;
+
+  // LRU keeps everything on window; TINY_LFU uses all three lists
+  private final RecencyList<Key,Value> window = new RecencyList<>();
+  private final RecencyList<Key,Value> probation = new RecencyList<>();
+  private final RecencyList<Key,Value> protectedList = new RecencyList<>();
+  private final int windowSize;
+  private final int protectedSize;
+  private final FrequencySketch<Key> sketch;
+
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  CachingSymbolTable(int capacity) {
+    this(capacity, Policy.LRU);
+  }
+
+  CachingSymbolTable(int capacity, Policy policy){
+    if (capacity < 1)
+      throw new IllegalArgumentException("capacity must be positive");
+
+    this.capacity = capacity;
+    this.policy = policy;
+    this.index = new LinearProbingHT<>(2 * capacity + 1); // never needs to grow
+
+    if(policy == Policy.TINY_LFU){
+      this.windowSize = Math.max(1, capacity / 100);
+      this.protectedSize = (capacity - windowSize) * 4 / 5;
+      this.sketch = new FrequencySketch<>(capacity);
+    } else {
+      this.windowSize = capacity;
+      this.protectedSize = 0;
+      this.sketch = null;
+    }
+  }
+
+  // put key-value pair into the cache, evicting a pair if it is full
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    LinearNode<Entry<Key,Value>> node = index.get(key);
+    if(node != null){
+      node.getElement().value = val;
+      touch(node);
+      return;
+    }
+
+    if(sketch != null)
+      sketch.increment(key);
+    node = new LinearNode<>(new Entry<>(key, val));
+    index.put(key, node);
+    window.addFirst(node);
+    if(window.size > windowSize)
+      evictFromWindow();
+  }
+
+  // get value paired with key, counting a hit or a miss
+  @Override
+  public Value get(Key key) {
+    if(sketch != null)
+      sketch.increment(key);
+
+    LinearNode<Entry<Key,Value>> node = index.get(key);
+    if(node == null){
+      misses++;
+      return null;
+    }
+    hits++;
+    touch(node);
+    return node.getElement().value;
+  }
+
+  // remove key (and its value) from the cache
+  @Override
+  public void delete(Key key) {
+    LinearNode<Entry<Key,Value>> node = index.get(key);
+    if(node == null)
+      return;
+    index.delete(key);
+    listOf(node).remove(node);
+  }
+
+  // is there a value paired with key? does not count as a use of key
+  @Override
+  public boolean contains(Key key) {
+    return index.contains(key);
+  }
+
+  // is the cache empty?
+  @Override
+  public boolean isEmpty() {
+    return index.isEmpty();
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return index.size();
+  }
+
+  // all keys in the cache
+  @Override
+  public Iterable<Key> keys() {
+    return index.keys();
+  }
+
+  // cursor over every key-value pair, leaving recency alone
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    MapCursor<Key, LinearNode<Entry<Key,Value>>> nodes = index.cursor();
+    return new MapCursor<Key,Value>() {
+      @Override
+      public boolean advance() {
+        return nodes.advance();
+      }
+
+      @Override
+      public Key key() {
+        return nodes.key();
+      }
+
+      @Override
+      public Value value() {
+        return nodes.value().getElement().value;
+      }
+    };
+  }
+
+  // most pairs the cache holds
+  public int capacity() {
+    return capacity;
+  }
+
+  // calls to get that found their key
+  public long hitCount() {
+    return hits;
+  }
+
+  // calls to get that did not find their key
+  public long missCount() {
+    return misses;
+  }
+
+  // pairs dropped to stay within capacity
+  public long evictionCount() {
+    return evictions;
+  }
+
+  // fraction of calls to get that found their key
+  public double hitRate() {
+    long requests = hits + misses;
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+
+  // record a use of node
+  private void touch(LinearNode<Entry<Key,Value>> node) {
+    switch(node.getElement().list){
+      case WINDOW:
+        window.moveToFront(node);
+        break;
+      case PROTECTED:
+        protectedList.moveToFront(node);
+        break;
+      default:
+        // used again while on probation: promote, demoting protected's oldest if full
+        probation.remove(node);
+        protectedList.addFirst(node);
+        node.getElement().list = PROTECTED;
+        if(protectedList.size > protectedSize){
+          LinearNode<Entry<Key,Value>> demoted = protectedList.removeLast();
+          probation.addFirst(demoted);
+          demoted.getElement().list = PROBATION;
+        }
+    }
+  }
+
+  // the window is one over its size: evict its oldest pair, or with TINY_LFU let it
+  // compete for a place in the main area
+  private void evictFromWindow() {
+    LinearNode<Entry<Key,Value>> candidate = window.removeLast();
+    if(policy == Policy.LRU){
+      evict(candidate);
+      return;
+    }
+
+    candidate.getElement().list = PROBATION;
+    if(probation.size + protectedList.size < capacity - windowSize){
+      probation.addFirst(candidate);
+      return;
+    }
+
+    RecencyList<Key,Value> victims = probation.size > 0 ? probation : protectedList;
+    LinearNode<Entry<Key,Value>> victim = victims.last();
+    if(victim != null && sketch.frequency(candidate.getElement().key) > sketch.frequency(victim.getElement().key)){
+      victims.remove(victim);
+      evict(victim);
+      probation.addFirst(candidate);
+    } else {
+      evict(candidate);
+    }
+  }
+
+  // drop a node that is already off its list
+  private void evict(LinearNode<Entry<Key,Value>> node) {
+    index.delete(node.getElement().key);
+    evictions++;
+  }
+
+  private RecencyList<Key,Value> listOf(LinearNode<Entry<Key,Value>> node) {
+    switch(node.getElement().list){
+      case WINDOW:
+        return window;
+      case PROBATION:
+        return probation;
+      default:
+        return protectedList;
+    }
+  }
+
+  private static class Entry<Key, Value>{
+    private final Key key;
+    private Value value;
+    private int list = WINDOW;
+
+    Entry(Key key, Value value){
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  // doubly linked list of LinearNodes around a sentinel, most recently used first
+  private static class RecencyList<Key, Value>{
+    private final LinearNode<Entry<Key,Value>> sentinel = new LinearNode<>(null);
+    private int size;
+
+    RecencyList(){
+      sentinel.setNext(sentinel);
+      sentinel.setPrev(sentinel);
+    }
+
+    void addFirst(LinearNode<Entry<Key,Value>> node){
+      node.setPrev(sentinel);
+      node.setNext(sentinel.getNext());
+      sentinel.getNext().setPrev(node);
+      sentinel.setNext(node);
+      size++;
+    }
+
+    void remove(LinearNode<Entry<Key,Value>> node){
+      node.getPrev().setNext(node.getNext());
+      node.getNext().setPrev(node.getPrev());
+      node.setPrev(null);
+      node.setNext(null);
+      size--;
+    }
+
+    void moveToFront(LinearNode<Entry<Key,Value>> node){
+      remove(node);
+      addFirst(node);
+    }
+
+    // least recently used node, or null if the list is empty
+    LinearNode<Entry<Key,Value>> last(){
+      return size == 0 ? null : sentinel.getPrev();
+    }
+
+    LinearNode<Entry<Key,Value>> removeLast(){
+      LinearNode<Entry<Key,Value>> node = sentinel.getPrev();
+      remove(node);
+      return node;
+    }
+  }
+
+  // count-min sketch of how often keys were asked for: four rows of 4-bit counters,
+  // all halved once enough increments have been seen, so old popularity fades
+  private static class FrequencySketch<Key>{
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+
+    private final byte[] counts; // row r is counts[r * width] to counts[r * width + width - 1]
+    private final int width; // a power of two
+    private final int sampleSize; // increments between two halvings
+    private final HashStrategy<Object> hasher = HashStrategy.murmur3();
+    private int additions;
+
+    FrequencySketch(int capacity){
+      width = Integer.highestOneBit(Math.max(16, capacity) * 2 - 1);
+      counts = new byte[DEPTH * width];
+      sampleSize = 10 * width;
+    }
+
+    // estimated number of recent uses of key
+    int frequency(Key key){
+      long z = hasher.hash(key);
+      int min = MAX_COUNT;
+      for(int r = 0; r < DEPTH; r++)
+        min = Math.min(min, counts[slot(z, r)]);
+      return min;
+    }
+
+    // count one use of key, raising only the counters at the current minimum
+    void increment(Key key){
+      long z = hasher.hash(key);
+      int min = frequency(key);
+      if(min == MAX_COUNT)
+        return;
+      for(int r = 0; r < DEPTH; r++){
+        int i = slot(z, r);
+        if(counts[i] == min)
+          counts[i]++;
+      }
+      if(++additions == sampleSize)
+        halve();
+    }
+
+    // r-th counter of a key with hash z, by double hashing the two halves of z
+    private int slot(long z, int r){
+      int h = (int) z + r * (int) (z >>> 32);
+      return r * width + (h & (width - 1));
+    }
+
+    private void halve(){
+      for(int i = 0; i < counts.length; i++)
+        counts[i] >>= 1;
+      additions /= 2;
+    }
+  }
+
+}
@@ -0,0 +1,58 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Codec interface for the keys and values of a table snapshot. write puts a value's
+ * bytes at the buffer's position; read gets a value back from exactly the bytes write
+ * produced (the snapshot stores their length). Numbers are written big-endian.
+ *
+ * @author Ian Skelskey
+ * @param <T> type of the encoded values
+ */
+public interface Codec<T> {
+
+    //write value's bytes at out's position; a full buffer throws BufferOverflowException
+    void write(T value, ByteBuffer out);
+
+    //the value whose bytes are all of in's remaining bytes; bytes that are not a valid
+    //value may throw any RuntimeException, which a snapshot reports as an IOException
+    T read(ByteBuffer in);
+
+    //codec made of a writer and a reader function
+    static <T> Codec<T> of(BiConsumer<? super T, ByteBuffer> writer, Function<ByteBuffer, ? extends T> reader) {
+        return new Codec<T>() {
+            @Override
+            public void write(T value, ByteBuffer out) {
+                writer.accept(value, out);
+            }
+
+            @Override
+            public T read(ByteBuffer in) {
+                return reader.apply(in);
+            }
+        };
+    }
+
+    //4-byte ints
+    static Codec<Integer> ints() {
+        return of((v, out) -> out.putInt(v), ByteBuffer::getInt);
+    }
+
+    //8-byte longs
+    static Codec<Long> longs() {
+        return of((v, out) -> out.putLong(v), ByteBuffer::getLong);
+    }
+
+    //8-byte doubles
+    static Codec<Double> doubles() {
+        return of((v, out) -> out.putDouble(v), ByteBuffer::getDouble);
+    }
+
+    //UTF-8 strings
+    static Codec<String> strings() {
+        return of((v, out) -> out.put(v.getBytes(StandardCharsets.UTF_8)),
+                in -> StandardCharsets.UTF_8.decode(in).toString());
+    }
+}
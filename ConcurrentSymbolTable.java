@@ -0,0 +1,22 @@
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Symbol table interface for tables shared between threads. Every method may be
+ * called concurrently; the methods below also run atomically per key.
+ *
+ * @author Ian Skelskey
+ * @param <Key> search key
+ * @param <Value> return type
+ */
+public interface ConcurrentSymbolTable<Key, Value> extends SymbolTable<Key, Value> {
+
+    //put key-value pair unless key already has a value; returns that value, or null if val went in
+    Value putIfAbsent(Key key, Value val);
+
+    //value paired with key, pairing it with fn(key) first if there is none (null from fn adds nothing)
+    Value computeIfAbsent(Key key, Function<? super Key, ? extends Value> fn);
+
+    //pair key with val if it has no value, otherwise with fn(old, val) (null from fn deletes key); returns the new value
+    Value merge(Key key, Value val, BiFunction<? super Value, ? super Value, ? extends Value> fn);
+}
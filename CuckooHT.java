@@ -0,0 +1,420 @@
+/**
+ * CuckooHT class
+ * Defined as: every key may only live in one of two buckets picked by two hash
+ * functions, and each bucket has room for four keys. Every slot also keeps an 8-bit
+ * tag of its key's hash, so a lookup compares the tags of those two buckets (plus a
+ * tiny stash) and calls equals only where a tag matches: get is constant time in the
+ * worst case. When both buckets are full an insert evicts a random resident to its
+ * other bucket, and so on for a bounded number of steps; a key still homeless after
+ * that goes to the stash. The stash never holds more than STASH_SIZE keys: once it is
+ * full the table is rebuilt with new hash functions, and after MAX_REBUILDS attempts
+ * that still leave a key homeless, with twice as many buckets. Keys that share a
+ * hashCode map to the same two buckets under every seed and size, so once both are
+ * full of keys with one hash, more keys with that hash go to an overflow table
+ * instead of forcing rebuilds; only those keys lose the constant-time bound.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class CuckooHT<Key, Value> implements SymbolTable<Key, Value> {
+
+  private static final int DEFAULT_SIZE = 256; // buckets
+  private static final int SLOTS = 4; // keys per bucket
+  private static final double MAX_LOAD = 0.9;
+  private static final int MAX_KICKS = 128; // evictions tried before stashing
+  private static final int STASH_SIZE = 4;
+  private static final int MAX_REBUILDS = 2; // reseeding attempts at one size before growing
+
+  // Member variables
+  private int M; // number of buckets, always a power of two
+  private int N; // number of key-value pairs
+  private final int minSize;
+  private final HashStrategy<? super Key> hasher;
+
+  private int seed; // changed on every rebuild so a bad layout is not repeated
+  private int rng = 0x2545F491; // xorshift state for picking eviction victims
+
+  private Object[] keys; // bucket b is keys[SLOTS * b] to keys[SLOTS * b + SLOTS - 1]
+  private Object[] vals;
+  private byte[] tags; // tag of the key in each slot
+
+  private Object[] stashKeys = new Object[STASH_SIZE];
+  private Object[] stashVals = new Object[STASH_SIZE];
+  private byte[] stashTags = new byte[STASH_SIZE];
+  private int stashN;
+
+  private LinearProbingHT<Key,Value> overflow; // keys no layout can place, null while there are none
+  private boolean rebuilding; // a homeless key fails the rebuild instead of starting another
+
+  CuckooHT() {
+    this(DEFAULT_SIZE);
+  }
+
+  CuckooHT(int size){
+    this(size, HashStrategy.murmur3());
+  }
+
+  CuckooHT(int size, HashStrategy<? super Key> hasher){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    this.M = Integer.highestOneBit(Math.max(2, size) * 2 - 1); // round up to a power of two
+    this.N = 0;
+    this.minSize = M;
+    this.hasher = hasher;
+
+    this.keys = new Object[SLOTS * M];
+    this.vals = new Object[SLOTS * M];
+    this.tags = new byte[SLOTS * M];
+  }
+
+  // one 64-bit mix per key, remixed with the rebuild seed; the low half picks the
+  // first bucket, the high half the second
+  private long mix(Object key) {
+    long z = (hasher.hash((Key) key) ^ seed) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 32)) * 0xD6E8FEB86659FD93L;
+    return z ^ (z >>> 32);
+  }
+
+  private int hash(long z) {
+    return (int) z & (M - 1);
+  }
+
+  private int hash2(long z) {
+    return (int) (z >>> 32) & (M - 1);
+  }
+
+  // top byte of the mix, which neither bucket index uses until M passes 2^24
+  private static byte tag(long z) {
+    return (byte) (z >>> 56);
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    long z = mix(key);
+    int i = indexOf(key, z);
+    if(i >= 0){
+      vals[i] = val;
+      return;
+    }
+    i = stashIndexOf(key, z);
+    if(i >= 0){
+      stashVals[i] = val;
+      return;
+    }
+    if(overflow != null && overflow.contains(key)){
+      overflow.put(key, val);
+      return;
+    }
+
+    if(N + 1 > MAX_LOAD * SLOTS * M)
+      rebuild(2 * M, key, val);
+    else
+      place(key, val);
+    N++;
+  }
+
+  // get value paired with key
+  @Override
+  public Value get(Key key) {
+    long z = mix(key);
+    int i = indexOf(key, z);
+    if(i >= 0)
+      return (Value) vals[i];
+
+    i = stashIndexOf(key, z);
+    if(i >= 0)
+      return (Value) stashVals[i];
+
+    return overflow == null ? null : overflow.get(key);
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    long z = mix(key);
+    int i = indexOf(key, z);
+    if(i >= 0){
+      keys[i] = null;
+      vals[i] = null;
+      unstash();
+    } else if((i = stashIndexOf(key, z)) >= 0){
+      unstash(i);
+    } else if(overflow != null && overflow.contains(key)){
+      overflow.delete(key);
+      if(overflow.isEmpty())
+        overflow = null;
+    } else {
+      return;
+    }
+    N--;
+
+    if(M > minSize && N < SLOTS * M / 8)
+      rebuild(M / 2, null, null);
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return get(key) != null;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N;
+  }
+
+  // all keys in the table, read from the slot arrays as they are iterated
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every key-value pair, the stash and then the overflow last
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new Cursor();
+  }
+
+  // slot holding key (whose mix is z) in either of its buckets, or -1
+  private int indexOf(Object key, long z) {
+    byte t = tag(z);
+    int i = find(hash(z), key, t);
+    return i >= 0 ? i : find(hash2(z), key, t);
+  }
+
+  private int find(int b, Object key, byte t) {
+    for(int i = SLOTS * b; i < SLOTS * b + SLOTS; i++){
+      if(tags[i] == t && keys[i] != null && keys[i].equals(key))
+        return i;
+    }
+    return -1;
+  }
+
+  private int freeSlot(int b) {
+    for(int i = SLOTS * b; i < SLOTS * b + SLOTS; i++){
+      if(keys[i] == null)
+        return i;
+    }
+    return -1;
+  }
+
+  private int stashIndexOf(Object key, long z) {
+    byte t = tag(z);
+    for(int i = 0; i < stashN; i++){
+      if(stashTags[i] == t && stashKeys[i].equals(key))
+        return i;
+    }
+    return -1;
+  }
+
+  // Stores a key known not to be in the table, evicting residents along the way. A key
+  // left homeless goes to the stash, or to the overflow if no layout can ever place it.
+  // With the stash full the table is rebuilt, unless a rebuild is already running: then
+  // the homeless key is dropped and false returned, and the rebuild starts over.
+  private boolean place(Object key, Object val) {
+    for(int kicks = 0; kicks < MAX_KICKS; kicks++){
+      long z = mix(key);
+      int b1 = hash(z);
+      int b2 = hash2(z);
+
+      int i = freeSlot(b1);
+      if(i < 0)
+        i = freeSlot(b2);
+      if(i >= 0){
+        keys[i] = key;
+        vals[i] = val;
+        tags[i] = tag(z);
+        return true;
+      }
+
+      // both buckets full: take a random slot and carry its old key onward
+      int r = nextRandom();
+      i = SLOTS * ((r & 1) == 0 ? b1 : b2) + ((r >>> 1) & (SLOTS - 1));
+      Object k = keys[i];
+      Object v = vals[i];
+      keys[i] = key;
+      vals[i] = val;
+      tags[i] = tag(z);
+      key = k;
+      val = v;
+    }
+
+    long z = mix(key);
+    if(sharesBuckets(z)){
+      if(overflow == null)
+        overflow = new LinearProbingHT<>(SLOTS);
+      overflow.put((Key) key, (Value) val);
+      return true;
+    }
+    if(stashN < STASH_SIZE){
+      stashKeys[stashN] = key;
+      stashVals[stashN] = val;
+      stashTags[stashN] = tag(z);
+      stashN++;
+      return true;
+    }
+    if(rebuilding)
+      return false;
+    rebuild(M, key, val);
+    return true;
+  }
+
+  // are both buckets of a key whose mix is z full of keys with that same mix? Such keys
+  // share a hashCode, and no seed or size will ever separate them
+  private boolean sharesBuckets(long z) {
+    return fullOf(hash(z), z) && fullOf(hash2(z), z);
+  }
+
+  private boolean fullOf(int b, long z) {
+    for(int i = SLOTS * b; i < SLOTS * b + SLOTS; i++){
+      if(keys[i] == null || tags[i] != tag(z) || mix(keys[i]) != z)
+        return false;
+    }
+    return true;
+  }
+
+  // take stash entry j out of the stash
+  private void unstash(int j) {
+    stashN--;
+    stashKeys[j] = stashKeys[stashN];
+    stashVals[j] = stashVals[stashN];
+    stashTags[j] = stashTags[stashN];
+    stashKeys[stashN] = null;
+    stashVals[stashN] = null;
+  }
+
+  // move stashed keys back into their buckets where there is room
+  private void unstash() {
+    for(int j = stashN - 1; j >= 0; j--){
+      long z = mix(stashKeys[j]);
+      int i = freeSlot(hash(z));
+      if(i < 0)
+        i = freeSlot(hash2(z));
+      if(i >= 0){
+        keys[i] = stashKeys[j];
+        vals[i] = stashVals[j];
+        tags[i] = stashTags[j];
+        unstash(j);
+      }
+    }
+  }
+
+  // Rehashes everything, plus extraKey unless it is null, into size buckets under a
+  // fresh seed. An attempt that leaves a key homeless with the stash full is thrown
+  // away and tried again with another seed, and after MAX_REBUILDS such attempts with
+  // twice as many buckets. The old arrays are only read, so every attempt starts clean.
+  private void rebuild(int size, Object extraKey, Object extraVal) {
+    Object[] oldKeys = keys;
+    Object[] oldVals = vals;
+    Object[] oldStashKeys = stashKeys;
+    Object[] oldStashVals = stashVals;
+    int oldStashN = stashN;
+    LinearProbingHT<Key,Value> oldOverflow = overflow;
+
+    rebuilding = true;
+    try {
+      for(int attempt = 1; ; attempt++){
+        if(attempt > MAX_REBUILDS){
+          size *= 2;
+          attempt = 1;
+        }
+        M = size;
+        seed = nextRandom();
+        keys = new Object[SLOTS * M];
+        vals = new Object[SLOTS * M];
+        tags = new byte[SLOTS * M];
+        stashKeys = new Object[STASH_SIZE];
+        stashVals = new Object[STASH_SIZE];
+        stashTags = new byte[STASH_SIZE];
+        stashN = 0;
+        overflow = null;
+
+        if(placeAll(oldKeys, oldVals, oldKeys.length) && placeAll(oldStashKeys, oldStashVals, oldStashN)
+            && placeAll(oldOverflow) && (extraKey == null || place(extraKey, extraVal)))
+          return;
+      }
+    } finally {
+      rebuilding = false;
+    }
+  }
+
+  // place the first n pairs of ks and vs, skipping empty slots; false if one was left homeless
+  private boolean placeAll(Object[] ks, Object[] vs, int n) {
+    for(int i = 0; i < n; i++){
+      if(ks[i] != null && !place(ks[i], vs[i]))
+        return false;
+    }
+    return true;
+  }
+
+  private boolean placeAll(LinearProbingHT<Key,Value> table) {
+    if(table == null)
+      return true;
+    MapCursor<Key,Value> cursor = table.cursor();
+    while(cursor.advance()){
+      if(!place(cursor.key(), cursor.value()))
+        return false;
+    }
+    return true;
+  }
+
+  private int nextRandom() {
+    rng ^= rng << 13;
+    rng ^= rng >>> 17;
+    rng ^= rng << 5;
+    return rng;
+  }
+
+  private class Cursor implements MapCursor<Key,Value> {
+    private int i = -1; // slot of the current pair, SLOTS * M + j for stash entry j
+    private MapCursor<Key,Value> rest; // over the overflow, once the stash is done
+
+    @Override
+    public boolean advance() {
+      while(i < SLOTS * M - 1){
+        if(keys[++i] != null)
+          return true;
+      }
+      if(i < SLOTS * M + stashN - 1){
+        i++;
+        return true;
+      }
+      if(rest == null){
+        if(overflow == null)
+          return false;
+        i = SLOTS * M + stashN;
+        rest = overflow.cursor();
+      }
+      return rest.advance();
+    }
+
+    @Override
+    public Key key() {
+      if(rest != null)
+        return rest.key();
+      return (Key) (i < SLOTS * M ? keys[i] : stashKeys[i - SLOTS * M]);
+    }
+
+    @Override
+    public Value value() {
+      if(rest != null)
+        return rest.value();
+      return (Value) (i < SLOTS * M ? vals[i] : stashVals[i - SLOTS * M]);
+    }
+  }
+
+}
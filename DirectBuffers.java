@@ -0,0 +1,49 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Frees the memory behind direct and memory-mapped ByteBuffers on demand, through
+ * sun.misc.Unsafe.invokeCleaner, instead of waiting for the buffers to be garbage
+ * collected. Where that method is not available free() does nothing and the memory
+ * goes back when the buffers are collected. A freed buffer must not be used again.
+ *
+ * @author Ian Skelskey
+ */
+final class DirectBuffers {
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not available: buffers are freed when they are garbage collected
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private DirectBuffers() {
+    }
+
+    //release the memory of every buffer in buffers
+    static void free(ByteBuffer... buffers) {
+        if (INVOKE_CLEANER == null)
+            return;
+        for (ByteBuffer buffer : buffers) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException e) {
+                return; // leave the rest to the garbage collector
+            }
+        }
+    }
+}
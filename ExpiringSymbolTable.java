@@ -0,0 +1,244 @@
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * ExpiringSymbolTable class
+ * Defined as: a symbol table whose pairs expire a set time after they were last put.
+ * Every entry carries its expiry time, so get() never returns an expired value: an
+ * expired entry found by a lookup is removed on the spot. The rest are reclaimed by a
+ * hashed timing wheel, a ring of buckets that each hold the entries due in one tick.
+ * Every operation first empties the buckets of the ticks that have passed since the
+ * last one, so the table is never scanned as a whole. A tick is about 1/64 of the
+ * default time to live and the wheel turns every 256 ticks, so an entry due within
+ * four default lifetimes is looked at once, when it is reclaimed: O(1) amortized.
+ * An entry with a longer time to live shares a bucket with earlier ones and is also
+ * passed over once per turn of the wheel until it is due.
+ * size() and isEmpty() may still count pairs that expired less than a tick ago.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class ExpiringSymbolTable<Key, Value> implements SymbolTable<Key, Value> {
+
+  private static final int WHEEL_SIZE = 256; // buckets, a power of two
+  private static final long MIN_TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+  // Member variables
+  private final LinearProbingHT<Key, Entry<Key,Value>> index;
+  private final long ttl; // default time to live in nanoseconds
+  private final LongSupplier clock; // nanoseconds, like System.nanoTime()
+  private final long origin; // clock reading at construction; times below are relative to it
+  private final int tickShift; // a tick is 2^tickShift nanoseconds
+
+  private final Entry<Key,Value>[] wheel; // sentinel of each bucket's circular list
+  private long swept; // every tick up to and including this one has been emptied
+
+  ExpiringSymbolTable(long ttl, TimeUnit unit) {
+    this(ttl, unit, System::nanoTime);
+  }
+
+  ExpiringSymbolTable(long ttl, TimeUnit unit, LongSupplier clock){
+    if (ttl <= 0)
+      throw new IllegalArgumentException("ttl must be positive");
+
+    this.index = new LinearProbingHT<>();
+    this.ttl = unit.toNanos(ttl);
+    this.clock = clock;
+    this.origin = clock.getAsLong();
+    // about 64 ticks per default lifetime, so most entries expire within one turn of the wheel
+    this.tickShift = 63 - Long.numberOfLeadingZeros(Math.max(MIN_TICK, this.ttl / 64));
+
+    this.wheel = (Entry<Key,Value>[]) new Entry[WHEEL_SIZE];
+    for(int b = 0; b < WHEEL_SIZE; b++){
+      wheel[b] = new Entry<>(null, null, 0);
+      wheel[b].prev = wheel[b];
+      wheel[b].next = wheel[b];
+    }
+    this.swept = -1;
+  }
+
+  // put key-value pair into the table, to expire after the default time to live
+  @Override
+  public void put(Key key, Value val) {
+    put(key, val, ttl, TimeUnit.NANOSECONDS);
+  }
+
+  // put key-value pair into the table, to expire after ttl
+  public void put(Key key, Value val, long ttl, TimeUnit unit) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+    if (ttl <= 0)
+      throw new IllegalArgumentException("ttl must be positive");
+
+    long now = now();
+    expire(now);
+
+    Entry<Key,Value> entry = index.get(key);
+    if(entry == null){
+      entry = new Entry<>(key, val, 0);
+      index.put(key, entry);
+    } else {
+      unlink(entry);
+      entry.value = val;
+    }
+    entry.expiresAt = expiry(now, unit.toNanos(ttl));
+    link(entry);
+  }
+
+  // get value paired with key, or null if there is none or it has expired
+  @Override
+  public Value get(Key key) {
+    long now = now();
+    expire(now);
+
+    Entry<Key,Value> entry = index.get(key);
+    if(entry == null)
+      return null;
+    if(entry.expiresAt <= now){
+      remove(entry);
+      return null;
+    }
+    return entry.value;
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    expire(now());
+
+    Entry<Key,Value> entry = index.get(key);
+    if(entry != null)
+      remove(entry);
+  }
+
+  // is there an unexpired value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return get(key) != null;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // number of key-value pairs, which may include some that expired within the last tick
+  @Override
+  public int size() {
+    expire(now());
+    return index.size();
+  }
+
+  // all unexpired keys in the table
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every pair that had not expired when the cursor was made
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    long now = now();
+    expire(now);
+
+    MapCursor<Key, Entry<Key,Value>> entries = index.cursor();
+    return new MapCursor<Key,Value>() {
+      @Override
+      public boolean advance() {
+        while(entries.advance()){
+          if(entries.value().expiresAt > now)
+            return true;
+        }
+        return false;
+      }
+
+      @Override
+      public Key key() {
+        return entries.key();
+      }
+
+      @Override
+      public Value value() {
+        return entries.value().value;
+      }
+    };
+  }
+
+  // time left before key expires in the given unit, or -1 if key is not in the table
+  public long timeToLive(Key key, TimeUnit unit) {
+    long now = now();
+    expire(now);
+
+    Entry<Key,Value> entry = index.get(key);
+    if(entry == null || entry.expiresAt <= now)
+      return -1;
+    return unit.convert(entry.expiresAt - now, TimeUnit.NANOSECONDS);
+  }
+
+  private long now() {
+    return clock.getAsLong() - origin;
+  }
+
+  // now + ttl, saturated so a huge time to live never wraps round to the past
+  private static long expiry(long now, long ttl) {
+    return ttl > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttl;
+  }
+
+  // empty the buckets of every tick that has fully passed, going round the wheel at
+  // most once however long it has been since the last call
+  private void expire(long now) {
+    long end = (now >>> tickShift) - 1; // last tick that has fully passed
+    if(end <= swept)
+      return;
+
+    for(long t = Math.max(swept + 1, end - WHEEL_SIZE + 1); t <= end; t++){
+      Entry<Key,Value> sentinel = wheel[(int) t & (WHEEL_SIZE - 1)];
+      for(Entry<Key,Value> entry = sentinel.next; entry != sentinel; ){
+        Entry<Key,Value> next = entry.next;
+        // later entries share the bucket with due ones, a turn or more of the wheel ahead
+        if((entry.expiresAt >>> tickShift) <= end)
+          remove(entry);
+        entry = next;
+      }
+    }
+    swept = end;
+  }
+
+  private void remove(Entry<Key,Value> entry) {
+    unlink(entry);
+    index.delete(entry.key);
+  }
+
+  // add entry to the bucket of the tick it expires in
+  private void link(Entry<Key,Value> entry) {
+    Entry<Key,Value> sentinel = wheel[(int) (entry.expiresAt >>> tickShift) & (WHEEL_SIZE - 1)];
+    entry.prev = sentinel.prev;
+    entry.next = sentinel;
+    sentinel.prev.next = entry;
+    sentinel.prev = entry;
+  }
+
+  private void unlink(Entry<Key,Value> entry) {
+    entry.prev.next = entry.next;
+    entry.next.prev = entry.prev;
+    entry.prev = null;
+    entry.next = null;
+  }
+
+  private static class Entry<Key, Value>{
+    private final Key key;
+    private Value value;
+    private long expiresAt; // nanoseconds after origin
+    private Entry<Key,Value> prev, next; // neighbours in the wheel bucket
+
+    Entry(Key key, Value value, long expiresAt){
+      this.key = key;
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+}
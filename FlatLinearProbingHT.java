@@ -0,0 +1,210 @@
+/**
+ * FlatLinearProbingHT class
+ * Defined as: the same linear probing scheme as LinearProbingHT, but with keys,
+ * values and each key's hash kept in parallel arrays instead of one Entry object
+ * per pair. A probe compares the cached hash first and only calls equals() when
+ * the hashes match, and inserts allocate nothing but the boxed key and value.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class FlatLinearProbingHT<Key, Value> implements SymbolTable<Key, Value> {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double DEFAULT_MAX_LOAD = 0.5;
+  private static final double DEFAULT_MIN_LOAD = 0.125;
+
+  // Member variables
+  private int M; // hash table size, always a power of two
+  private int N; // number of key-value pairs
+
+  private final int minSize;
+  private final double maxLoad;
+  private final double minLoad;
+  private final HashStrategy<? super Key> hasher;
+
+  private Object[] keys;
+  private Object[] vals;
+  private int[] hashes; // full hash of keys[i], so resizing never calls hashCode()
+
+  FlatLinearProbingHT() {
+    this(DEFAULT_SIZE);
+  }
+
+  FlatLinearProbingHT(int size){
+    this(size, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD);
+  }
+
+  FlatLinearProbingHT(int size, HashStrategy<? super Key> hasher){
+    this(size, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD, hasher);
+  }
+
+  FlatLinearProbingHT(int size, double maxLoad, double minLoad){
+    this(size, maxLoad, minLoad, HashStrategy.murmur3());
+  }
+
+  FlatLinearProbingHT(int size, double maxLoad, double minLoad, HashStrategy<? super Key> hasher){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+    if (maxLoad <= 0 || maxLoad >= 1)
+      throw new IllegalArgumentException("maxLoad must be in (0, 1)");
+    if (minLoad < 0 || 2 * minLoad >= maxLoad)
+      throw new IllegalArgumentException("minLoad must be in [0, maxLoad / 2)");
+
+    this.M = Integer.highestOneBit(Math.max(2, size) * 2 - 1); // round up to a power of two
+    this.N = 0;
+    this.minSize = M;
+    this.maxLoad = maxLoad;
+    this.minLoad = minLoad;
+    this.hasher = hasher;
+
+    this.keys = new Object[M];
+    this.vals = new Object[M];
+    this.hashes = new int[M];
+  }
+
+  public int hash(Key key){
+    return (int) hasher.hash(key);
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int h = hash(key);
+    int i = indexOf(key, h);
+    if(i >= 0){
+      vals[i] = val;
+      return;
+    }
+
+    if(N + 1 > maxLoad * M)
+      resize(2 * M);
+
+    insert(key, val, h);
+    N++;
+  }
+
+  // get value paired with key
+  @Override
+  public Value get(Key key) {
+    int i = indexOf(key, hash(key));
+    return i >= 0 ? (Value) vals[i] : null;
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    int i = indexOf(key, hash(key));
+    if(i < 0)
+      return;
+
+    keys[i] = null;
+    vals[i] = null;
+    // reinsert the rest of the cluster so its keys stay reachable
+    for(i = (i + 1) & (M - 1); keys[i] != null; i = (i + 1) & (M - 1)){
+      Object k = keys[i];
+      Object v = vals[i];
+      keys[i] = null;
+      vals[i] = null;
+      insert(k, v, hashes[i]);
+    }
+    N--;
+
+    if(M > minSize && N < minLoad * M)
+      resize(M / 2);
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return indexOf(key, hash(key)) >= 0;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N;
+  }
+
+  // all keys in the table, read from the slot array as they are iterated
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every key-value pair
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new Cursor();
+  }
+
+  // index of key (whose hash is h), or -1 if it is not there
+  private int indexOf(Key key, int h) {
+    for(int i = h & (M - 1); keys[i] != null; i = (i + 1) & (M - 1)){
+      if(hashes[i] == h && keys[i].equals(key))
+        return i;
+    }
+    return -1;
+  }
+
+  // place a key known not to be in the table
+  private void insert(Object key, Object val, int h) {
+    int i = h & (M - 1);
+    while(keys[i] != null)
+      i = (i + 1) & (M - 1);
+    keys[i] = key;
+    vals[i] = val;
+    hashes[i] = h;
+  }
+
+  private void resize(int size) {
+    Object[] oldKeys = keys;
+    Object[] oldVals = vals;
+    int[] oldHashes = hashes;
+
+    M = size;
+    keys = new Object[M];
+    vals = new Object[M];
+    hashes = new int[M];
+
+    for(int i = 0; i < oldKeys.length; i++){
+      if(oldKeys[i] != null)
+        insert(oldKeys[i], oldVals[i], oldHashes[i]);
+    }
+  }
+
+  private class Cursor implements MapCursor<Key,Value> {
+    private int i = -1; // slot of the current pair
+
+    @Override
+    public boolean advance() {
+      while(i < M - 1){
+        if(keys[++i] != null)
+          return true;
+      }
+      return false;
+    }
+
+    @Override
+    public Key key() {
+      return (Key) keys[i];
+    }
+
+    @Override
+    public Value value() {
+      return (Value) vals[i];
+    }
+  }
+
+}
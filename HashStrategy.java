@@ -0,0 +1,57 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hash function interface for the hash tables. A strategy turns a key into a well mixed
+ * 64-bit hash, so a table can take its index from the low bits with a mask instead of
+ * % M and still spread sequential keys, or keys with a poor hashCode, evenly.
+ * The no-argument factories pick a random seed, so every table hashes differently and
+ * a set of keys crafted to collide in one table does not collide in another. (Keys with
+ * equal hashCodes still collide everywhere; the strategy only sees the hashCode.)
+ *
+ * @author Ian Skelskey
+ * @param <Key> search key
+ */
+@FunctionalInterface
+public interface HashStrategy<Key> {
+
+    //64-bit hash of key, every bit depending on every bit of key.hashCode()
+    long hash(Key key);
+
+    //murmur3's 64-bit finalizer applied to the seeded hashCode, random seed
+    static <Key> HashStrategy<Key> murmur3() {
+        return murmur3(ThreadLocalRandom.current().nextLong());
+    }
+
+    //murmur3's 64-bit finalizer applied to the seeded hashCode
+    static <Key> HashStrategy<Key> murmur3(long seed) {
+        return key -> fmix64(key.hashCode() ^ seed);
+    }
+
+    //wyhash's multiply-and-fold mix of the hashCode with the seed, random seed
+    static <Key> HashStrategy<Key> wyhash() {
+        return wyhash(ThreadLocalRandom.current().nextLong());
+    }
+
+    //wyhash's multiply-and-fold mix of the hashCode with the seed
+    static <Key> HashStrategy<Key> wyhash(long seed) {
+        return key -> wymix(key.hashCode() ^ seed ^ 0xA0761D6478BD642FL, seed ^ 0xE7037ED1A0B428DBL);
+    }
+
+    //key.hashCode() as is, for keys whose hashCode is already well spread in its low bits;
+    //the hash is sign-extended, so its high 32 bits are all copies of bit 31, and a table
+    //that takes a second index from the high half must remix the hash first
+    static <Key> HashStrategy<Key> plain() {
+        return key -> key.hashCode();
+    }
+
+    private static long fmix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    // full 128-bit product of a and b, high half xor low half
+    private static long wymix(long a, long b) {
+        return Math.multiplyHigh(a, b) ^ (a * b);
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * IntIntHashTable class
+ * Defined as: linear probing over two parallel int arrays, for tables whose keys and
+ * values are both ints. Nothing is boxed, so put/get/remove/containsKey never allocate.
+ * Key 0 marks an empty slot; a real 0 key is kept in a field on the side.
+ * asSymbolTable() wraps the table for code written against SymbolTable.
+ * @author Ian Skelskey
+ * @version 1.0
+*/
+
+public class IntIntHashTable {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final int EMPTY = 0; // key of an unused slot
+
+  // Member variables
+  private int M; // hash table size, always a power of two
+  private int N; // number of key-value pairs in the arrays
+  private int shift; // 32 - log2(M), keeps the top bits of the hash
+
+  private int[] keys;
+  private int[] vals;
+
+  private boolean hasZeroKey;
+  private int zeroValue;
+
+  IntIntHashTable() {
+    this(DEFAULT_SIZE);
+  }
+
+  IntIntHashTable(int size){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    allocate(Integer.highestOneBit(Math.max(2, size) * 2 - 1)); // round up to a power of two
+  }
+
+  // fibonacci hashing: multiply by 2^32 / phi and keep the high bits
+  private int hash(int key){
+    return (key * 0x9E3779B9) >>> shift;
+  }
+
+  // put key-value pair into the table
+  public void put(int key, int val) {
+    if(key == EMPTY){
+      hasZeroKey = true;
+      zeroValue = val;
+      return;
+    }
+
+    int i = hash(key);
+    for(; keys[i] != EMPTY; i = (i + 1) & (M - 1)){
+      if(keys[i] == key){
+        vals[i] = val;
+        return;
+      }
+    }
+
+    if(N + 1 > MAX_LOAD * M){
+      resize(2 * M);
+      for(i = hash(key); keys[i] != EMPTY; i = (i + 1) & (M - 1));
+    }
+
+    keys[i] = key;
+    vals[i] = val;
+    N++;
+  }
+
+  // value paired with key, or 0 if there is none
+  public int get(int key) {
+    return getOrDefault(key, 0);
+  }
+
+  // value paired with key, or defaultValue if there is none
+  public int getOrDefault(int key, int defaultValue) {
+    if(key == EMPTY)
+      return hasZeroKey ? zeroValue : defaultValue;
+
+    int i = indexOf(key);
+    return i >= 0 ? vals[i] : defaultValue;
+  }
+
+  // is there a value paired with key?
+  public boolean containsKey(int key) {
+    if(key == EMPTY)
+      return hasZeroKey;
+    return indexOf(key) >= 0;
+  }
+
+  // remove key (and its value) from table, true if it was there
+  public boolean remove(int key) {
+    if(key == EMPTY){
+      boolean had = hasZeroKey;
+      hasZeroKey = false;
+      return had;
+    }
+
+    int i = indexOf(key);
+    if(i < 0)
+      return false;
+
+    removeAt(i);
+    N--;
+    return true;
+  }
+
+  // is the table empty?
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // number of key-value pairs
+  public int size() {
+    return hasZeroKey ? N + 1 : N;
+  }
+
+  // a SymbolTable view backed by this table
+  public SymbolTable<Integer, Integer> asSymbolTable() {
+    return new Adapter();
+  }
+
+  // index of key in keys, or -1 if it is not there
+  private int indexOf(int key) {
+    for(int i = hash(key); keys[i] != EMPTY; i = (i + 1) & (M - 1)){
+      if(keys[i] == key)
+        return i;
+    }
+    return -1;
+  }
+
+  // empty slot i, shifting back later keys of its cluster that may take its place
+  private void removeAt(int i) {
+    for(int j = (i + 1) & (M - 1); keys[j] != EMPTY; j = (j + 1) & (M - 1)){
+      // keys[j] can move to i unless its home slot lies after i
+      if(((j - hash(keys[j])) & (M - 1)) >= ((j - i) & (M - 1))){
+        keys[i] = keys[j];
+        vals[i] = vals[j];
+        i = j;
+      }
+    }
+    keys[i] = EMPTY;
+  }
+
+  private void allocate(int size) {
+    M = size;
+    N = 0;
+    shift = Integer.numberOfLeadingZeros(M) + 1;
+    keys = new int[M];
+    vals = new int[M];
+  }
+
+  private void resize(int size) {
+    int[] oldKeys = keys;
+    int[] oldVals = vals;
+    int n = N;
+
+    allocate(size);
+    for(int j = 0; j < oldKeys.length; j++){
+      if(oldKeys[j] != EMPTY){
+        int i = hash(oldKeys[j]);
+        while(keys[i] != EMPTY)
+          i = (i + 1) & (M - 1);
+        keys[i] = oldKeys[j];
+        vals[i] = oldVals[j];
+      }
+    }
+    N = n;
+  }
+
+  private class Adapter implements SymbolTable<Integer, Integer> {
+
+    @Override
+    public void put(Integer key, Integer val) {
+      if (val == null || key == null)
+        throw new IllegalArgumentException("value or key cannot be null");
+      IntIntHashTable.this.put(key, val);
+    }
+
+    @Override
+    public Integer get(Integer key) {
+      return containsKey(key) ? IntIntHashTable.this.get(key) : null;
+    }
+
+    @Override
+    public void delete(Integer key) {
+      remove(key);
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return IntIntHashTable.this.isEmpty();
+    }
+
+    @Override
+    public int size() {
+      return IntIntHashTable.this.size();
+    }
+
+    // all keys in the table, read from the key array as they are iterated
+    @Override
+    public Iterable<Integer> keys() {
+      return () -> cursor().keyIterator();
+    }
+
+    // cursor over every key-value pair, the zero key first
+    @Override
+    public MapCursor<Integer, Integer> cursor() {
+      return new MapCursor<Integer, Integer>() {
+        private int i = hasZeroKey ? -2 : -1; // slot of the current pair, -1 for the zero key
+
+        @Override
+        public boolean advance() {
+          while(i < M - 1){
+            if(++i < 0 || keys[i] != EMPTY)
+              return true;
+          }
+          return false;
+        }
+
+        @Override
+        public Integer key() {
+          return i < 0 ? EMPTY : keys[i];
+        }
+
+        @Override
+        public Integer value() {
+          return i < 0 ? zeroValue : vals[i];
+        }
+      };
+    }
+  }
+
+}
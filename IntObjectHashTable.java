@@ -0,0 +1,241 @@
+/**
+ * IntObjectHashTable class
+ * Defined as: linear probing over an int key array and a parallel value array, for
+ * tables keyed by ints. Keys are never boxed, so put/get/remove/containsKey never allocate.
+ * Key 0 marks an empty slot; a real 0 key is kept in a field on the side.
+ * asSymbolTable() wraps the table for code written against SymbolTable.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Value>
+*/
+
+public class IntObjectHashTable<Value> {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final int EMPTY = 0; // key of an unused slot
+
+  // Member variables
+  private int M; // hash table size, always a power of two
+  private int N; // number of key-value pairs in the arrays
+  private int shift; // 32 - log2(M), keeps the top bits of the hash
+
+  private int[] keys;
+  private Value[] vals;
+
+  private boolean hasZeroKey;
+  private Value zeroValue;
+
+  IntObjectHashTable() {
+    this(DEFAULT_SIZE);
+  }
+
+  IntObjectHashTable(int size){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    allocate(Integer.highestOneBit(Math.max(2, size) * 2 - 1)); // round up to a power of two
+  }
+
+  // fibonacci hashing: multiply by 2^32 / phi and keep the high bits
+  private int hash(int key){
+    return (key * 0x9E3779B9) >>> shift;
+  }
+
+  // put key-value pair into the table
+  public void put(int key, Value val) {
+    if (val == null)
+      throw new IllegalArgumentException("value cannot be null");
+
+    if(key == EMPTY){
+      hasZeroKey = true;
+      zeroValue = val;
+      return;
+    }
+
+    int i = hash(key);
+    for(; keys[i] != EMPTY; i = (i + 1) & (M - 1)){
+      if(keys[i] == key){
+        vals[i] = val;
+        return;
+      }
+    }
+
+    if(N + 1 > MAX_LOAD * M){
+      resize(2 * M);
+      for(i = hash(key); keys[i] != EMPTY; i = (i + 1) & (M - 1));
+    }
+
+    keys[i] = key;
+    vals[i] = val;
+    N++;
+  }
+
+  // value paired with key, or null if there is none
+  public Value get(int key) {
+    if(key == EMPTY)
+      return zeroValue;
+
+    int i = indexOf(key);
+    return i >= 0 ? vals[i] : null;
+  }
+
+  // is there a value paired with key?
+  public boolean containsKey(int key) {
+    if(key == EMPTY)
+      return hasZeroKey;
+    return indexOf(key) >= 0;
+  }
+
+  // remove key (and its value) from table, returning the value or null if it was not there
+  public Value remove(int key) {
+    if(key == EMPTY){
+      Value old = zeroValue;
+      hasZeroKey = false;
+      zeroValue = null;
+      return old;
+    }
+
+    int i = indexOf(key);
+    if(i < 0)
+      return null;
+
+    Value old = vals[i];
+    removeAt(i);
+    N--;
+    return old;
+  }
+
+  // is the table empty?
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // number of key-value pairs
+  public int size() {
+    return hasZeroKey ? N + 1 : N;
+  }
+
+  // a SymbolTable view backed by this table
+  public SymbolTable<Integer, Value> asSymbolTable() {
+    return new Adapter();
+  }
+
+  // index of key in keys, or -1 if it is not there
+  private int indexOf(int key) {
+    for(int i = hash(key); keys[i] != EMPTY; i = (i + 1) & (M - 1)){
+      if(keys[i] == key)
+        return i;
+    }
+    return -1;
+  }
+
+  // empty slot i, shifting back later keys of its cluster that may take its place
+  private void removeAt(int i) {
+    for(int j = (i + 1) & (M - 1); keys[j] != EMPTY; j = (j + 1) & (M - 1)){
+      // keys[j] can move to i unless its home slot lies after i
+      if(((j - hash(keys[j])) & (M - 1)) >= ((j - i) & (M - 1))){
+        keys[i] = keys[j];
+        vals[i] = vals[j];
+        i = j;
+      }
+    }
+    keys[i] = EMPTY;
+    vals[i] = null;
+  }
+
+  private void allocate(int size) {
+    M = size;
+    N = 0;
+    shift = Integer.numberOfLeadingZeros(M) + 1;
+    keys = new int[M];
+    vals = (Value[]) new Object[M];
+  }
+
+  private void resize(int size) {
+    int[] oldKeys = keys;
+    Value[] oldVals = vals;
+    int n = N;
+
+    allocate(size);
+    for(int j = 0; j < oldKeys.length; j++){
+      if(oldKeys[j] != EMPTY){
+        int i = hash(oldKeys[j]);
+        while(keys[i] != EMPTY)
+          i = (i + 1) & (M - 1);
+        keys[i] = oldKeys[j];
+        vals[i] = oldVals[j];
+      }
+    }
+    N = n;
+  }
+
+  private class Adapter implements SymbolTable<Integer, Value> {
+
+    @Override
+    public void put(Integer key, Value val) {
+      if (val == null || key == null)
+        throw new IllegalArgumentException("value or key cannot be null");
+      IntObjectHashTable.this.put(key, val);
+    }
+
+    @Override
+    public Value get(Integer key) {
+      return IntObjectHashTable.this.get(key);
+    }
+
+    @Override
+    public void delete(Integer key) {
+      remove(key);
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return IntObjectHashTable.this.isEmpty();
+    }
+
+    @Override
+    public int size() {
+      return IntObjectHashTable.this.size();
+    }
+
+    // all keys in the table, read from the key array as they are iterated
+    @Override
+    public Iterable<Integer> keys() {
+      return () -> cursor().keyIterator();
+    }
+
+    // cursor over every key-value pair, the zero key first
+    @Override
+    public MapCursor<Integer, Value> cursor() {
+      return new MapCursor<Integer, Value>() {
+        private int i = hasZeroKey ? -2 : -1; // slot of the current pair, -1 for the zero key
+
+        @Override
+        public boolean advance() {
+          while(i < M - 1){
+            if(++i < 0 || keys[i] != EMPTY)
+              return true;
+          }
+          return false;
+        }
+
+        @Override
+        public Integer key() {
+          return i < 0 ? EMPTY : keys[i];
+        }
+
+        @Override
+        public Value value() {
+          return i < 0 ? zeroValue : vals[i];
+        }
+      };
+    }
+  }
+
+}
@@ -1,72 +1,203 @@
-import java.util.LinkedList;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 /**
  * LinearProbingHT class
  * Defined as: hashing to an occupied index, looking for the next available space.
+ * The table doubles once it is fuller than maxLoad and halves once it is emptier
+ * than minLoad. In incremental mode a resize only allocates the new array, and the
+ * old entries are migrated a few slots at a time by each following write. Reads,
+ * cursors and spliterators look in both arrays while a migration runs and never move
+ * an entry themselves.
+ * The table size is a power of two, indexed by masking a HashStrategy hash.
  * @author Ian Skelskey
- * @version 1.0
+ * @version 1.1
  * @param <Key>
  * @param <Value>
 */
 
 public class LinearProbingHT<Key, Value> implements SymbolTable<Key, Value> {
 
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double DEFAULT_MAX_LOAD = 0.5;
+  private static final double DEFAULT_MIN_LOAD = 0.125;
+  private static final int MIGRATE_STEP = 16; // old slots moved per operation
+
   // Member variables
-  private int M; // hash table size
+  private int M; // hash table size, always a power of two
   private int N; // number of key-value pairs
 
+  private final int minSize; // table never shrinks below its starting size
+  private final double maxLoad;
+  private final double minLoad;
+  private final boolean incremental;
+  private final HashStrategy<? super Key> hasher;
+
   private Entry<Key,Value>[] pairs; // array for key-value pairs
 
+  // incremental rehash state, oldPairs is null when no migration is running
+  private Entry<Key,Value>[] oldPairs;
+  private int oldM;
+  private int migrated; // next index of oldPairs to move
+  private final Entry<Key,Value> moved = new Entry<>(null, null, 0); // marks emptied slots of oldPairs
+
   LinearProbingHT() {
-    this(997);
+    this(DEFAULT_SIZE);
   }
 
   LinearProbingHT(int size){
-    this.M = size;
+    this(size, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD, false);
+  }
+
+  LinearProbingHT(int size, HashStrategy<? super Key> hasher){
+    this(size, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD, false, hasher);
+  }
+
+  LinearProbingHT(int size, double maxLoad, double minLoad, boolean incremental){
+    this(size, maxLoad, minLoad, incremental, HashStrategy.murmur3());
+  }
+
+  LinearProbingHT(int size, double maxLoad, double minLoad, boolean incremental, HashStrategy<? super Key> hasher){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+    if (maxLoad <= 0 || maxLoad >= 1)
+      throw new IllegalArgumentException("maxLoad must be in (0, 1)");
+    if (minLoad < 0 || 2 * minLoad >= maxLoad)
+      throw new IllegalArgumentException("minLoad must be in [0, maxLoad / 2)");
+
+    this.M = Integer.highestOneBit(Math.max(2, size) * 2 - 1); // round up to a power of two
     this.N = 0;
+    this.minSize = M;
+    this.maxLoad = maxLoad;
+    this.minLoad = minLoad;
+    this.incremental = incremental;
+    this.hasher = hasher;
 
     this.pairs = new Entry[M];
   }
 
   public int hash(Key key){
-    return (key.hashCode() & 0x7fffffff) % M;
+    return (int) hasher.hash(key) & (M - 1);
   }
 
   // put key-value pair into the table
   @Override
   public void put(Key key, Value val) {
-    for(int i = hash(key); pairs[i] != null; i = (i + 1) % M){
-      if(pairs[i].getKey().equals(key)){
-        pairs[i].setValue(val);
-        return;
-      }
-    pairs[i] = new Entry<>(key,val);
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    migrate(MIGRATE_STEP);
+
+    int h = (int) hasher.hash(key);
+    if(update(key, h, val))
+      return;
+
+    if(N + 1 > maxLoad * M)
+      resize(2 * M);
+
+    insert(new Entry<>(key, val, h));
     N++;
-    }
   }
 
   // get value paired with key
   @Override
   public Value get(Key key) {
-    for(int i = hash(key); pairs[i] != null; i = (i + 1) % M){
-      if(pairs[i].getKey().equals(key)){
-        return pairs[i].getValue();
-      }
-    }
-    return null;
+    return find(key, (int) hasher.hash(key));
   }
 
   // remove key (and its value) from table
   @Override
   public void delete(Key key) {
-    for(int i = hash(key); pairs[i] != null; i = (i + 1) % M){
-      if(pairs[i].getKey().equals(key)){
-        pairs[i].setValue(null);
-        N--;
+    migrate(MIGRATE_STEP);
+
+    if(!remove(key, (int) hasher.hash(key)))
+      return;
+
+    if(M > minSize && N < minLoad * M)
+      resize(Math.max(minSize, M / 2));
+  }
+
+  // spliterator over every key-value pair that splits the slots in halves, counting
+  // those of both arrays while a migration runs; only the unsplit spliterator is SIZED
+  @Override
+  public Spliterator<Map.Entry<Key,Value>> spliterator() {
+    return new SlotSpliterator(pairs, oldPairs, 0, M + (oldPairs == null ? 0 : oldM), N, true);
+  }
+
+  // put every keys[i]-vals[i] pair, growing the table at most once for the batch
+  @Override
+  public void putAll(Key[] keys, Value[] vals) {
+    if (keys.length != vals.length)
+      throw new IllegalArgumentException("keys and vals must have the same length");
+
+    // hash the whole batch first so the probes below run back to back
+    int[] h = new int[keys.length];
+    for(int i = 0; i < keys.length; i++){
+      if (vals[i] == null || keys[i] == null)
+        throw new IllegalArgumentException("value or key cannot be null");
+      h[i] = (int) hasher.hash(keys[i]);
+    }
+
+    reserve(keys.length);
+    for(int i = 0; i < keys.length; i++){
+      migrate(MIGRATE_STEP);
+      if(!update(keys[i], h[i], vals[i])){
+        insert(new Entry<>(keys[i], vals[i], h[i]));
+        N++;
+      }
+    }
+  }
+
+  // put every pair of pairs, growing the table at most once for the batch
+  @Override
+  public void putAll(Collection<? extends Map.Entry<? extends Key, ? extends Value>> pairs) {
+    for(Map.Entry<? extends Key, ? extends Value> pair : pairs){
+      if (pair.getValue() == null || pair.getKey() == null)
+        throw new IllegalArgumentException("value or key cannot be null");
+    }
+
+    reserve(pairs.size());
+    for(Map.Entry<? extends Key, ? extends Value> pair : pairs){
+      migrate(MIGRATE_STEP);
+      int h = (int) hasher.hash(pair.getKey());
+      if(!update(pair.getKey(), h, pair.getValue())){
+        insert(new Entry<>(pair.getKey(), pair.getValue(), h));
+        N++;
       }
     }
   }
 
+  // store the value paired with keys[i] (or null) in vals[i], and return vals
+  @Override
+  public Value[] getAll(Key[] keys, Value[] vals) {
+    if (vals.length < keys.length)
+      throw new IllegalArgumentException("vals is shorter than keys");
+
+    int[] h = hashAll(keys);
+    for(int i = 0; i < keys.length; i++)
+      vals[i] = find(keys[i], h[i]);
+    return vals;
+  }
+
+  // remove every key in keys, shrinking the table at most once for the batch
+  @Override
+  public void deleteAll(Key[] keys) {
+    int[] h = hashAll(keys);
+    for(int i = 0; i < keys.length; i++){
+      migrate(MIGRATE_STEP);
+      remove(keys[i], h[i]);
+    }
+
+    int size = M;
+    while(size > minSize && N < minLoad * size)
+      size /= 2;
+    if(size < M)
+      resize(size);
+  }
+
   // is there a value paired with key?
   @Override
   public boolean contains(Key key) {
@@ -86,27 +217,255 @@ public class LinearProbingHT<Key, Value> implements SymbolTable<Key, Value> {
     return N;
   }
 
-  // all keys in the table
+  // all keys in the table, read from the slot array as they are iterated
   @Override
   public Iterable<Key> keys() {
-    LinkedList<Key> keyRing = new LinkedList<>();
-    for(int i = 0; i < M; i++){
-      if(pairs[i] != null)
-        keyRing.add(pairs[i].getKey());
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every key-value pair, in both arrays while a migration runs
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new Cursor();
+  }
+
+  // hash of every key, computed in one pass before any probing
+  private int[] hashAll(Key[] keys) {
+    int[] h = new int[keys.length];
+    for(int i = 0; i < keys.length; i++)
+      h[i] = (int) hasher.hash(keys[i]);
+    return h;
+  }
+
+  // value paired with key (whose hash is h) in pairs or oldPairs, or null
+  private Value find(Key key, int h) {
+    int i = indexOf(key, h);
+    if(i >= 0)
+      return pairs[i].getValue();
+
+    if(oldPairs != null && (i = oldIndexOf(key, h)) >= 0)
+      return oldPairs[i].getValue();
+
+    return null;
+  }
+
+  // pair key (whose hash is h) with val if it is in pairs or oldPairs, false if it is not
+  private boolean update(Key key, int h, Value val) {
+    int i = indexOf(key, h);
+    if(i >= 0){
+      pairs[i].setValue(val);
+      return true;
+    }
+
+    // keys still waiting in the old table are moved over when updated
+    if(oldPairs != null && (i = oldIndexOf(key, h)) >= 0){
+      Entry<Key,Value> entry = oldPairs[i];
+      oldPairs[i] = moved;
+      entry.setValue(val);
+      insert(entry);
+      return true;
+    }
+    return false;
+  }
+
+  // remove key (whose hash is h) from pairs or oldPairs, false if it is not there
+  private boolean remove(Key key, int h) {
+    int i = indexOf(key, h);
+    if(i >= 0){
+      pairs[i] = null;
+      // reinsert the rest of the cluster so its keys stay reachable
+      for(i = (i + 1) & (M - 1); pairs[i] != null; i = (i + 1) & (M - 1)){
+        Entry<Key,Value> entry = pairs[i];
+        pairs[i] = null;
+        insert(entry);
+      }
+    } else if(oldPairs != null && (i = oldIndexOf(key, h)) >= 0){
+      oldPairs[i] = moved;
+    } else {
+      return false;
+    }
+    N--;
+    return true;
+  }
+
+  // index of key (whose hash is h) in pairs, or -1 if it is not there
+  private int indexOf(Key key, int h) {
+    for(int i = h & (M - 1); pairs[i] != null; i = (i + 1) & (M - 1)){
+      if(pairs[i].getHash() == h && pairs[i].getKey().equals(key))
+        return i;
+    }
+    return -1;
+  }
+
+  // index of key in oldPairs, or -1 if it is not there (or already moved)
+  private int oldIndexOf(Key key, int h) {
+    for(int i = h & (oldM - 1); oldPairs[i] != null; i = (i + 1) & (oldM - 1)){
+      if(oldPairs[i] != moved && oldPairs[i].getHash() == h && oldPairs[i].getKey().equals(key))
+        return i;
+    }
+    return -1;
+  }
+
+  // place an entry whose key is known not to be in pairs
+  private void insert(Entry<Key,Value> entry) {
+    int i = entry.getHash() & (M - 1);
+    while(pairs[i] != null)
+      i = (i + 1) & (M - 1);
+    pairs[i] = entry;
+  }
+
+  // grow once so n more keys fit under maxLoad
+  private void reserve(int n) {
+    int size = M;
+    while(N + n > maxLoad * size)
+      size *= 2;
+    if(size > M)
+      resize(size);
+  }
+
+  // switch to a table of the given size, moving everything now unless incremental
+  private void resize(int size) {
+    migrate(oldM); // only one migration runs at a time
+
+    oldPairs = pairs;
+    oldM = M;
+    migrated = 0;
+
+    M = size;
+    pairs = new Entry[M];
+
+    if(!incremental)
+      migrate(oldM);
+  }
+
+  // move up to steps slots of oldPairs into pairs
+  private void migrate(int steps) {
+    if(oldPairs == null)
+      return;
+
+    int end = Math.min(oldM, migrated + steps);
+    for(; migrated < end; migrated++){
+      Entry<Key,Value> entry = oldPairs[migrated];
+      if(entry != null && entry != moved){
+        oldPairs[migrated] = moved;
+        insert(entry);
+      }
+    }
+
+    if(migrated == oldM)
+      oldPairs = null;
+  }
+
+  // slot s of table followed by old, or null if it is empty or its entry has moved
+  private Entry<Key,Value> slot(Entry<Key,Value>[] table, Entry<Key,Value>[] old, int s) {
+    Entry<Key,Value> entry = s < table.length ? table[s] : old[s - table.length];
+    return entry == moved ? null : entry;
+  }
+
+  private class Cursor implements MapCursor<Key,Value> {
+    private final Entry<Key,Value>[] table = pairs;
+    private final Entry<Key,Value>[] old = oldPairs; // null when no migration is running
+    private final int end = M + (old == null ? 0 : oldM);
+    private int i = -1; // slot of the current pair, counting those of table first
+    private Entry<Key,Value> entry;
+
+    @Override
+    public boolean advance() {
+      while(i < end - 1){
+        entry = slot(table, old, ++i);
+        if(entry != null)
+          return true;
+      }
+      return false;
+    }
+
+    @Override
+    public Key key() {
+      return entry.getKey();
+    }
+
+    @Override
+    public Value value() {
+      return entry.getValue();
+    }
+  }
+
+  private class SlotSpliterator implements Spliterator<Map.Entry<Key,Value>> {
+    private final Entry<Key,Value>[] table;
+    private final Entry<Key,Value>[] old; // null when no migration is running
+    private int i; // next slot to visit, counting those of table first
+    private final int end; // one past the last slot to visit
+    private int est; // pairs left in [i, end): exact while sized, an estimate after
+    private boolean sized; // true only for the top-level spliterator, before it splits
+
+    SlotSpliterator(Entry<Key,Value>[] table, Entry<Key,Value>[] old, int i, int end, int est, boolean sized) {
+      this.table = table;
+      this.old = old;
+      this.i = i;
+      this.end = end;
+      this.est = est;
+      this.sized = sized;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map.Entry<Key,Value>> action) {
+      while(i < end){
+        Entry<Key,Value> entry = slot(table, old, i++);
+        if(entry != null){
+          est = Math.max(0, est - 1);
+          action.accept(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Map.Entry<Key,Value>> action) {
+      for(; i < end; i++){
+        Entry<Key,Value> entry = slot(table, old, i);
+        if(entry != null)
+          action.accept(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+      }
+      est = 0;
+    }
+
+    // hand the first half of the remaining slots to a new spliterator. The split is
+    // by slot range, and how many pairs fall in a range is unknown without scanning
+    // it, so neither half is SIZED and neither ever reports SUBSIZED
+    @Override
+    public Spliterator<Map.Entry<Key,Value>> trySplit() {
+      int mid = (i + end) >>> 1;
+      if(mid <= i)
+        return null;
+
+      est >>>= 1;
+      sized = false;
+      SlotSpliterator prefix = new SlotSpliterator(table, old, i, mid, est, false);
+      i = mid;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return est;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.DISTINCT | Spliterator.NONNULL | (sized ? Spliterator.SIZED : 0);
     }
-    return keyRing;
   }
 
   private class Entry<Key, Value>{
   private Key key;
   private Value value;
+  private int hash;
 
-  public Entry(Key key, Value value){
-    if (value == null || key == null)
-      throw new IllegalArgumentException("value or key cannot be null");
-
+  public Entry(Key key, Value value, int hash){
     this.key = key;
     this.value = value;
+    this.hash = hash;
   }
 
   public Key getKey(){
@@ -117,10 +476,14 @@ public class LinearProbingHT<Key, Value> implements SymbolTable<Key, Value> {
     return this.value;
   }
 
+  public int getHash(){
+    return this.hash;
+  }
+
   public void setValue(Value val){
     this.value = val;
   }
 }
-  
+
 }
 
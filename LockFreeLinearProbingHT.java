@@ -0,0 +1,390 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * LockFreeLinearProbingHT class
+ * Defined as: hashing to an occupied index, looking for the next available space, with
+ * every slot changed by compare-and-set so no thread ever waits on another.
+ * A key, once written to a slot, stays there for the life of that array; delete only
+ * swaps the value for a marker. When an array fills up a bigger one is chained after it,
+ * and every thread that touches the old array helps move its slots over: a slot's value
+ * is first frozen (wrapped in a Prime), then copied forward, then marked as moved. Any
+ * thread that meets a frozen or moved slot finishes that slot and carries on in the new
+ * array, so readers and writers never see an entry in two places.
+ * computeIfAbsent and merge may call their function more than once when they race with
+ * other writers to the same key; only one result is stored.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class LockFreeLinearProbingHT<Key, Value> implements ConcurrentSymbolTable<Key, Value> {
+
+  private static final int DEFAULT_SIZE = 64;
+  private static final double MAX_LOAD = 0.5;
+  private static final int COPY_CHUNK = 64; // slots a thread claims to copy at a time
+
+  // slot markers
+  private static final Object SEALED = new Object(); // key slot that was empty when its array was copied
+  private static final Object TOMBSTONE = new Object(); // value of a deleted key
+  private static final Object MOVED = new Object(); // value already copied to the next array
+
+  // what putIfMatch expects to find
+  private static final Object ANY = new Object();
+  private static final Object ABSENT = new Object(); // no value, or a deleted one
+  private static final Object FRESH = new Object(); // no value ever written
+
+  // Member variables
+  private final AtomicReference<Table> top;
+  private final LongAdder N = new LongAdder(); // number of key-value pairs
+  private final HashStrategy<? super Key> hasher;
+
+  LockFreeLinearProbingHT() {
+    this(DEFAULT_SIZE);
+  }
+
+  LockFreeLinearProbingHT(int size){
+    this(size, HashStrategy.murmur3());
+  }
+
+  LockFreeLinearProbingHT(int size, HashStrategy<? super Key> hasher){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    this.hasher = hasher;
+    top = new AtomicReference<>(new Table(Integer.highestOneBit(Math.max(2, size) * 2 - 1)));
+  }
+
+  public int hash(Key key){
+    return (int) hasher.hash(key);
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    putIfMatch(top.get(), key, hash(key), val, ANY);
+  }
+
+  // get value paired with key
+  @Override
+  public Value get(Key key) {
+    int h = hash(key);
+    Table t = top.get();
+    retry:
+    while(true){
+      int M = t.keys.length();
+      int i = h & (M - 1);
+      for(int probes = 0; probes < M; probes++, i = (i + 1) & (M - 1)){
+        Object k = t.keys.get(i);
+        if(k == null)
+          return null;
+        if(k == SEALED){
+          t = t.next.get();
+          continue retry;
+        }
+        if(k.equals(key)){
+          Object v = t.vals.get(i);
+          if(v instanceof Prime || v == MOVED){
+            copySlotAndCount(t, i);
+            t = t.next.get();
+            continue retry;
+          }
+          return v == TOMBSTONE ? null : (Value) v;
+        }
+      }
+      // searched a full array
+      t = t.next.get();
+      if(t == null)
+        return null;
+    }
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    putIfMatch(top.get(), key, hash(key), TOMBSTONE, ANY);
+  }
+
+  @Override
+  public Value putIfAbsent(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    return (Value) putIfMatch(top.get(), key, hash(key), val, ABSENT);
+  }
+
+  @Override
+  public Value computeIfAbsent(Key key, Function<? super Key, ? extends Value> fn) {
+    Value val = get(key);
+    if(val != null)
+      return val;
+
+    val = fn.apply(key);
+    if(val == null)
+      return null;
+
+    Value old = putIfAbsent(key, val);
+    return old == null ? val : old;
+  }
+
+  @Override
+  public Value merge(Key key, Value val, BiFunction<? super Value, ? super Value, ? extends Value> fn) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int h = hash(key);
+    while(true){
+      Value old = get(key);
+      if(old == null){
+        if(putIfMatch(top.get(), key, h, val, ABSENT) == null)
+          return val;
+        continue;
+      }
+
+      Value merged = fn.apply(old, val);
+      Object seen = putIfMatch(top.get(), key, h, merged == null ? TOMBSTONE : merged, old);
+      if(seen == old)
+        return merged;
+    }
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return get(key) != null;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N.sum() == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N.intValue();
+  }
+
+  // all keys in the table; keys added or deleted while they are iterated may or may not appear
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over the pairs of the newest array, once any copy into it has finished, so
+  // no key is seen twice; pairs added or deleted while it runs may or may not be visited
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    Table t = settled();
+    return new MapCursor<Key,Value>() {
+      private int i = -1; // slot of the current pair
+      private Key key;
+      private Value val;
+
+      @Override
+      public boolean advance() {
+        while(i < t.keys.length() - 1){
+          Object k = t.keys.get(++i);
+          if(k == null || k == SEALED)
+            continue;
+          Object v = t.vals.get(i);
+          if(v instanceof Prime || v == MOVED)
+            v = get((Key) k); // a later copy has started: read the key where it lives now
+          if(v != null && v != TOMBSTONE){
+            key = (Key) k;
+            val = (Value) v;
+            return true;
+          }
+        }
+        return false;
+      }
+
+      @Override
+      public Key key() {
+        return key;
+      }
+
+      @Override
+      public Value value() {
+        return val;
+      }
+    };
+  }
+
+  // Sets key's value to val if its current value is what expected asks for, and returns the
+  // value it found (null for none). val is TOMBSTONE to delete. Copies (expected FRESH) leave N alone.
+  private Object putIfMatch(Table t, Object key, int h, Object val, Object expected) {
+    retry:
+    while(true){
+      int M = t.keys.length();
+      int i = h & (M - 1);
+      int probes = 0;
+
+      // find key's slot, claiming an empty one for a new key
+      while(true){
+        Object k = t.keys.get(i);
+        if(k == null){
+          if(val == TOMBSTONE)
+            return null; // deleting a key that is not there
+          if(t.keys.compareAndSet(i, null, key)){
+            if(t.used.incrementAndGet() > MAX_LOAD * M)
+              resize(t);
+            break;
+          }
+          k = t.keys.get(i);
+        }
+        if(k == SEALED){
+          t = helpCopy(t);
+          continue retry;
+        }
+        if(k.equals(key))
+          break;
+        if(++probes >= M){
+          // every slot holds another key, so key cannot be added here
+          resize(t);
+          t = helpCopy(t);
+          continue retry;
+        }
+        i = (i + 1) & (M - 1);
+      }
+
+      // a copy is running: move this slot first, then write in the next array
+      if(t.next.get() != null){
+        copySlotAndCount(t, i);
+        t = helpCopy(t);
+        continue retry;
+      }
+
+      while(true){
+        Object v = t.vals.get(i);
+        if(v instanceof Prime || v == MOVED){
+          copySlotAndCount(t, i);
+          t = helpCopy(t);
+          continue retry;
+        }
+
+        Object current = v == TOMBSTONE ? null : v;
+        if(expected == ABSENT ? current != null
+            : expected == FRESH ? v != null
+            : expected != ANY && current != expected)
+          return current;
+
+        if(t.vals.compareAndSet(i, v, val)){
+          if(expected != FRESH){
+            if(current == null && val != TOMBSTONE)
+              N.increment();
+            else if(current != null && val == TOMBSTONE)
+              N.decrement();
+          }
+          return current;
+        }
+      }
+    }
+  }
+
+  // chain a new array after t, sized for the keys currently live
+  private void resize(Table t) {
+    if(t.next.get() != null)
+      return;
+
+    long live = Math.max(0, N.sum());
+    int size = DEFAULT_SIZE;
+    while(size < 4 * (live + 1) && size < (1 << 30))
+      size *= 2;
+    t.next.compareAndSet(null, new Table(size));
+  }
+
+  // the top array with no copy out of it running, helping any running copy to finish
+  private Table settled() {
+    while(true){
+      Table t = top.get();
+      if(t.next.get() == null)
+        return t;
+      helpCopy(t);
+    }
+  }
+
+  // copy a chunk of t into its next array and return the next array
+  private Table helpCopy(Table t) {
+    Table next = t.next.get();
+    int M = t.keys.length();
+
+    if(t.copied.get() < M){
+      // chunks wrap around, so slots a slow thread claimed get copied by others too
+      int start = t.copyIndex.getAndAdd(COPY_CHUNK);
+      for(int n = 0; n < Math.min(COPY_CHUNK, M); n++)
+        copySlotAndCount(t, (start + n) & (M - 1));
+    } else {
+      top.compareAndSet(t, next);
+    }
+    return next;
+  }
+
+  private void copySlotAndCount(Table t, int i) {
+    if(copySlot(t, i) && t.copied.incrementAndGet() == t.keys.length())
+      top.compareAndSet(t, t.next.get()); // t is fully copied: retire it
+  }
+
+  // Moves slot i of t into the next array. Returns true only for the call that finished the slot.
+  private boolean copySlot(Table t, int i) {
+    Object k = t.keys.get(i);
+    while(k == null){
+      if(t.keys.compareAndSet(i, null, SEALED))
+        return true;
+      k = t.keys.get(i);
+    }
+    if(k == SEALED)
+      return false;
+
+    // freeze the value so no writer can change it here any more
+    Object v = t.vals.get(i);
+    while(!(v instanceof Prime)){
+      if(v == MOVED)
+        return false;
+      Prime frozen = new Prime(v);
+      if(t.vals.compareAndSet(i, v, frozen)){
+        v = frozen;
+        break;
+      }
+      v = t.vals.get(i);
+    }
+
+    Object old = ((Prime) v).value;
+    if(old != null && old != TOMBSTONE)
+      putIfMatch(t.next.get(), k, hash((Key) k), old, FRESH); // newer writes in next win
+    return t.vals.compareAndSet(i, v, MOVED);
+  }
+
+  private static class Table {
+    private final AtomicReferenceArray<Object> keys;
+    private final AtomicReferenceArray<Object> vals;
+    private final AtomicInteger used = new AtomicInteger(); // key slots claimed
+    private final AtomicReference<Table> next = new AtomicReference<>();
+    private final AtomicInteger copyIndex = new AtomicInteger(); // first slot no thread has claimed to copy
+    private final AtomicInteger copied = new AtomicInteger(); // slots finished copying
+
+    Table(int size){
+      keys = new AtomicReferenceArray<>(size);
+      vals = new AtomicReferenceArray<>(size);
+    }
+  }
+
+  // a value frozen while its slot is being copied
+  private static class Prime {
+    private final Object value;
+
+    Prime(Object value){
+      this.value = value;
+    }
+  }
+
+}
@@ -0,0 +1,239 @@
+/**
+ * LongLongHashTable class
+ * Defined as: linear probing over two parallel long arrays, for tables whose keys and
+ * values are both longs. Nothing is boxed, so put/get/remove/containsKey never allocate.
+ * Key 0 marks an empty slot; a real 0 key is kept in a field on the side.
+ * asSymbolTable() wraps the table for code written against SymbolTable.
+ * @author Ian Skelskey
+ * @version 1.0
+*/
+
+public class LongLongHashTable {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final long EMPTY = 0; // key of an unused slot
+
+  // Member variables
+  private int M; // hash table size, always a power of two
+  private int N; // number of key-value pairs in the arrays
+  private int shift; // 64 - log2(M), keeps the top bits of the hash
+
+  private long[] keys;
+  private long[] vals;
+
+  private boolean hasZeroKey;
+  private long zeroValue;
+
+  LongLongHashTable() {
+    this(DEFAULT_SIZE);
+  }
+
+  LongLongHashTable(int size){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    allocate(Integer.highestOneBit(Math.max(2, size) * 2 - 1)); // round up to a power of two
+  }
+
+  // fibonacci hashing: multiply by 2^64 / phi and keep the high bits
+  private int hash(long key){
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+  }
+
+  // put key-value pair into the table
+  public void put(long key, long val) {
+    if(key == EMPTY){
+      hasZeroKey = true;
+      zeroValue = val;
+      return;
+    }
+
+    int i = hash(key);
+    for(; keys[i] != EMPTY; i = (i + 1) & (M - 1)){
+      if(keys[i] == key){
+        vals[i] = val;
+        return;
+      }
+    }
+
+    if(N + 1 > MAX_LOAD * M){
+      resize(2 * M);
+      for(i = hash(key); keys[i] != EMPTY; i = (i + 1) & (M - 1));
+    }
+
+    keys[i] = key;
+    vals[i] = val;
+    N++;
+  }
+
+  // value paired with key, or 0 if there is none
+  public long get(long key) {
+    return getOrDefault(key, 0);
+  }
+
+  // value paired with key, or defaultValue if there is none
+  public long getOrDefault(long key, long defaultValue) {
+    if(key == EMPTY)
+      return hasZeroKey ? zeroValue : defaultValue;
+
+    int i = indexOf(key);
+    return i >= 0 ? vals[i] : defaultValue;
+  }
+
+  // is there a value paired with key?
+  public boolean containsKey(long key) {
+    if(key == EMPTY)
+      return hasZeroKey;
+    return indexOf(key) >= 0;
+  }
+
+  // remove key (and its value) from table, true if it was there
+  public boolean remove(long key) {
+    if(key == EMPTY){
+      boolean had = hasZeroKey;
+      hasZeroKey = false;
+      return had;
+    }
+
+    int i = indexOf(key);
+    if(i < 0)
+      return false;
+
+    removeAt(i);
+    N--;
+    return true;
+  }
+
+  // is the table empty?
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // number of key-value pairs
+  public int size() {
+    return hasZeroKey ? N + 1 : N;
+  }
+
+  // a SymbolTable view backed by this table
+  public SymbolTable<Long, Long> asSymbolTable() {
+    return new Adapter();
+  }
+
+  // index of key in keys, or -1 if it is not there
+  private int indexOf(long key) {
+    for(int i = hash(key); keys[i] != EMPTY; i = (i + 1) & (M - 1)){
+      if(keys[i] == key)
+        return i;
+    }
+    return -1;
+  }
+
+  // empty slot i, shifting back later keys of its cluster that may take its place
+  private void removeAt(int i) {
+    for(int j = (i + 1) & (M - 1); keys[j] != EMPTY; j = (j + 1) & (M - 1)){
+      // keys[j] can move to i unless its home slot lies after i
+      if(((j - hash(keys[j])) & (M - 1)) >= ((j - i) & (M - 1))){
+        keys[i] = keys[j];
+        vals[i] = vals[j];
+        i = j;
+      }
+    }
+    keys[i] = EMPTY;
+  }
+
+  private void allocate(int size) {
+    M = size;
+    N = 0;
+    shift = Integer.numberOfLeadingZeros(M) + 33;
+    keys = new long[M];
+    vals = new long[M];
+  }
+
+  private void resize(int size) {
+    long[] oldKeys = keys;
+    long[] oldVals = vals;
+    int n = N;
+
+    allocate(size);
+    for(int j = 0; j < oldKeys.length; j++){
+      if(oldKeys[j] != EMPTY){
+        int i = hash(oldKeys[j]);
+        while(keys[i] != EMPTY)
+          i = (i + 1) & (M - 1);
+        keys[i] = oldKeys[j];
+        vals[i] = oldVals[j];
+      }
+    }
+    N = n;
+  }
+
+  private class Adapter implements SymbolTable<Long, Long> {
+
+    @Override
+    public void put(Long key, Long val) {
+      if (val == null || key == null)
+        throw new IllegalArgumentException("value or key cannot be null");
+      LongLongHashTable.this.put(key, val);
+    }
+
+    @Override
+    public Long get(Long key) {
+      return containsKey(key) ? LongLongHashTable.this.get(key) : null;
+    }
+
+    @Override
+    public void delete(Long key) {
+      remove(key);
+    }
+
+    @Override
+    public boolean contains(Long key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return LongLongHashTable.this.isEmpty();
+    }
+
+    @Override
+    public int size() {
+      return LongLongHashTable.this.size();
+    }
+
+    // all keys in the table, read from the key array as they are iterated
+    @Override
+    public Iterable<Long> keys() {
+      return () -> cursor().keyIterator();
+    }
+
+    // cursor over every key-value pair, the zero key first
+    @Override
+    public MapCursor<Long, Long> cursor() {
+      return new MapCursor<Long, Long>() {
+        private int i = hasZeroKey ? -2 : -1; // slot of the current pair, -1 for the zero key
+
+        @Override
+        public boolean advance() {
+          while(i < M - 1){
+            if(++i < 0 || keys[i] != EMPTY)
+              return true;
+          }
+          return false;
+        }
+
+        @Override
+        public Long key() {
+          return i < 0 ? EMPTY : keys[i];
+        }
+
+        @Override
+        public Long value() {
+          return i < 0 ? zeroValue : vals[i];
+        }
+      };
+    }
+  }
+
+}
@@ -1,6 +1,14 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
 
@@ -102,6 +110,56 @@ public class Main {
         System.out.println("After balance:");
         bst.balance();
         bst.printLevel(5); // root
+
+        System.out.println("Keys from 7 down to 2:");
+        for(int k : bst.descendingKeys(2, 7))
+            System.out.println(k);
+
+        SkelskeyBSTST<Integer, Integer> autoBst = new SkelskeyBSTST<>();
+        autoBst.setAutoBalance(2);
+        for(int k = 0; k < 100000; k++)
+            autoBst.put(k, k); // sorted keys would otherwise make a 100000-deep list
+        assert(autoBst.height() <= 2 * 17 + 1)      : "auto balance did not bound the height";
+        assert(autoBst.select(500) == 500)          : "subtree counts are wrong after rebuilding";
+
+        Integer[] evens = new Integer[100000];
+        Integer[] odds = new Integer[100000];
+        for(int k = 0; k < evens.length; k++) {
+            evens[k] = 2 * k;
+            odds[k] = 2 * k + 1;
+        }
+        SkelskeyBSTST<Integer, Integer> loaded = SkelskeyBSTST.fromSorted(evens, evens);
+        assert(loaded.height() == 17)               : "bulk build is not balanced";
+        loaded.merge(odds, odds);
+        assert(loaded.size() == 200000)             : "merge lost keys";
+        assert(loaded.rank(1001) == 1001)           : "subtree counts are wrong after merging";
+        assert(loaded.height() == 18)               : "merge did not leave a balanced tree";
+
+        System.out.println("RedBlackBSTST: ");
+        testIntegers(new RedBlackBSTST<Integer, Integer>());
+        testStrings(new RedBlackBSTST<String, Integer>());
+        RedBlackBSTST<Integer, Integer> rb = new RedBlackBSTST<>();
+        for(int k = 0; k < 100000; k++)
+            rb.put(k, k); // sorted keys, the worst case for SkelskeyBSTST
+        assert(rb.height() <= 2 * 17)               : "tree is not balanced";
+        assert(rb.rank(500) == 500)                 : "does not return correct rank";
+        assert(rb.select(99999) == 99999)           : "does not return correct key";
+        assert(rb.size(10, 19) == 10)               : "does not return correct range size";
+
+        System.out.println("BPlusTreeST: ");
+        testIntegers(new BPlusTreeST<Integer, Integer>());
+        testStrings(new BPlusTreeST<String, Integer>());
+        Integer[] sorted = new Integer[100000];
+        for(int k = 0; k < sorted.length; k++)
+            sorted[k] = 2 * k;
+        BPlusTreeST<Integer, Integer> bplus = BPlusTreeST.fromSorted(sorted, sorted);
+        assert(bplus.size() == 100000)              : "bulk load lost keys";
+        assert(bplus.rank(1000) == 500)             : "does not return correct rank";
+        assert(bplus.floor(1001) == 1000)           : "does not return correct floor";
+        int scanned = 0;
+        for(int k : bplus.keys(10, 29))
+            scanned++;
+        assert(scanned == 10)                       : "range scan returned wrong keys";
         
 	    /* HashTables
 	     * 
@@ -113,10 +171,122 @@ public class Main {
         System.out.println("GeneralProbingHT: ");
         testIntegers(new LinearProbingHT<Integer, Integer>());
         testStrings(new LinearProbingHT<String, Integer>());
+        testIntegers(new LinearProbingHT<Integer, Integer>(4, 0.5, 0.125, true));
+        testStrings(new LinearProbingHT<String, Integer>(4, 0.5, 0.125, true));
+        testIntegers(new LinearProbingHT<Integer, Integer>(2, HashStrategy.wyhash()));
+        testStrings(new LinearProbingHT<String, Integer>(2, HashStrategy.plain()));
         
         System.out.println("QuadProbingHT: ");
         testIntegers(new QuadProbingHT<Integer, Integer>());
         testStrings(new QuadProbingHT<String, Integer>());
+        testIntegers(new QuadProbingHT<Integer, Integer>(2));
+
+        System.out.println("RobinHoodHT: ");
+        testIntegers(new RobinHoodHT<Integer, Integer>());
+        testStrings(new RobinHoodHT<String, Integer>());
+        testIntegers(new RobinHoodHT<Integer, Integer>(2));
+
+        System.out.println("FlatLinearProbingHT: ");
+        testIntegers(new FlatLinearProbingHT<Integer, Integer>());
+        testStrings(new FlatLinearProbingHT<String, Integer>());
+        testIntegers(new FlatLinearProbingHT<Integer, Integer>(2));
+
+        System.out.println("SwissHT: ");
+        testIntegers(new SwissHT<Integer, Integer>());
+        testStrings(new SwissHT<String, Integer>());
+        testIntegers(new SwissHT<Integer, Integer>(1));
+
+        System.out.println("CuckooHT: ");
+        testIntegers(new CuckooHT<Integer, Integer>());
+        testStrings(new CuckooHT<String, Integer>());
+        testIntegers(new CuckooHT<Integer, Integer>(1));
+
+        System.out.println("StripedLinearProbingHT: ");
+        testIntegers(new StripedLinearProbingHT<Integer, Integer>());
+        testStrings(new StripedLinearProbingHT<String, Integer>());
+        testConcurrent(new StripedLinearProbingHT<Integer, Integer>(4));
+
+        System.out.println("LockFreeLinearProbingHT: ");
+        testIntegers(new LockFreeLinearProbingHT<Integer, Integer>());
+        testStrings(new LockFreeLinearProbingHT<String, Integer>());
+        testConcurrent(new LockFreeLinearProbingHT<Integer, Integer>(2));
+
+        System.out.println("IntIntHashTable: ");
+        testIntegers(new IntIntHashTable().asSymbolTable());
+        testIntegers(new IntIntHashTable(2).asSymbolTable());
+
+        System.out.println("IntObjectHashTable: ");
+        testIntegers(new IntObjectHashTable<Integer>().asSymbolTable());
+
+        System.out.println("CachingSymbolTable: ");
+        testIntegers(new CachingSymbolTable<Integer, Integer>(2048));
+        testStrings(new CachingSymbolTable<String, Integer>(2048, CachingSymbolTable.Policy.TINY_LFU));
+        CachingSymbolTable<Integer, Integer> cache = new CachingSymbolTable<>(2);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.get(1);
+        cache.put(3, 3); // evicts 2, the least recently used
+        assert(cache.contains(1) && !cache.contains(2)) : "evicted the wrong key";
+        assert(cache.evictionCount() == 1)              : "eviction was not counted";
+
+        System.out.println("ExpiringSymbolTable: ");
+        testIntegers(new ExpiringSymbolTable<Integer, Integer>(1, TimeUnit.HOURS));
+        testStrings(new ExpiringSymbolTable<String, Integer>(1, TimeUnit.HOURS));
+        long[] now = {0};
+        ExpiringSymbolTable<String, String> sessions = new ExpiringSymbolTable<>(30, TimeUnit.SECONDS, () -> now[0]);
+        sessions.put("alice", "a1");
+        sessions.put("bob", "b1", 90, TimeUnit.SECONDS);
+        now[0] = TimeUnit.SECONDS.toNanos(60);
+        assert(sessions.get("alice") == null)   : "returned an expired value";
+        assert(sessions.get("bob").equals("b1")) : "lost a value before it expired";
+        now[0] = TimeUnit.SECONDS.toNanos(120);
+        assert(sessions.isEmpty())              : "expired pairs were not purged";
+
+        System.out.println("OffHeapLongLongHashTable: ");
+        try (OffHeapLongLongHashTable offHeap = new OffHeapLongLongHashTable(2)) {
+            for(long k = -500; k < 500; k++)
+                offHeap.put(k, 3 * k);
+            offHeap.remove(7);
+            assert(offHeap.size() == 999)           : "does not contain correct number of elements";
+            assert(offHeap.get(-500) == -1500)      : "does not return correct value";
+            assert(offHeap.containsKey(0))          : "added key 0 does not exist";
+            assert(!offHeap.containsKey(7))         : "a deleted key is still contained";
+            assert(offHeap.getOrDefault(7, -1) == -1) : "returned a value for a deleted key";
+        }
+
+        System.out.println("MappedLongLongHashTable: ");
+        try {
+            Path file = Files.createTempFile("table", ".sklh");
+            Files.delete(file);
+            try (MappedLongLongHashTable mapped = new MappedLongLongHashTable(file, 2)) {
+                for(long k = 0; k < 1000; k++)
+                    mapped.put(k, k * k);
+            }
+            try (MappedLongLongHashTable mapped = new MappedLongLongHashTable(file)) {
+                assert(mapped.size() == 1000)           : "reopened table lost keys";
+                assert(mapped.get(999) == 999 * 999)    : "reopened table returns wrong value";
+                assert(mapped.containsKey(0))           : "reopened table lost key 0";
+            }
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        System.out.println("Snapshots: ");
+        try {
+            SymbolTable<String, Integer> words = new LinearProbingHT<>();
+            for(String word : "it was the best of times it was the worst of times".split(" "))
+                words.put(word, words.contains(word) ? words.get(word) + 1 : 1);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            words.writeTo(Channels.newChannel(bytes), Codec.strings(), Codec.ints());
+            SymbolTable<String, Integer> copy = new TwoProbeChainHT<>();
+            copy.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), Codec.strings(), Codec.ints());
+            assert(copy.size() == words.size())     : "snapshot lost keys";
+            assert(copy.get("times") == 2)          : "snapshot returns wrong value";
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
 	}
 
 	
@@ -158,6 +328,8 @@ public class Main {
         for(Integer i : st.keys())
             stKeys.add(i);
         assert(stKeys.equals(keys))     : "keys do not match expected";
+        assert(st.stream().parallel().count() == st.size())                     : "stream size does not match";
+        assert(st.reduce(1, (k, v) -> k, Integer::sum).equals(st.stream().mapToInt(e -> e.getKey()).sum())) : "reduce does not match stream";
 
         //note: the following code does not check if keys is maintained properl- it should.
         
@@ -210,12 +382,81 @@ public class Main {
         assert(st.get(48) == null)      : "returned non-null for key that was deleted";
         assert(st.size() == size - 1)   : "size did not update";        
         assert(!st.contains(48))        : "a deleted key is still contained";
+
+        System.out.println("  Testing bulk operations... ");
+
+        Integer[] batch = new Integer[1000];
+        Integer[] vals = new Integer[batch.length];
+        for(int i = 0; i < batch.length; i++) {
+            batch[i] = 1000 + i;
+            vals[i] = i;
+        }
+        size = st.size();
+        st.putAll(batch, vals);
+        assert(st.size() == size + batch.length)                     : "putAll did not add every key";
+        assert(Arrays.equals(st.getAll(batch, new Integer[batch.length]), vals)) : "getAll returned wrong values";
+        st.deleteAll(batch);
+        assert(st.size() == size)       : "deleteAll did not remove every key";
+        assert(!st.contains(1000))      : "a bulk deleted key is still contained";
         
         System.out.println("  DONE\n");
     }
     
     
     
+    /**
+     * Test concurrent operations on symbol table implementation. No JUnit; ugly.
+     * 
+     * @param st An object implementing a concurrent symbol table.
+     */
+    public static void testConcurrent(ConcurrentSymbolTable<Integer, Integer> st) {
+        System.out.println("*CONCURRENT TESTING*");
+
+        System.out.println("  Testing merge() from several threads... ");
+
+        //every thread counts each of 1000 keys 10 times, deleting and re-adding a few keys on the way.
+        int threads = 4;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int n = 0; n < 10000; n++) {
+                    st.merge(n % 1000, 1, Integer::sum);
+                    st.putIfAbsent(1000 + id, id);
+                    st.delete(2000 + id);
+                    st.computeIfAbsent(2000 + id, k -> -1);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        assert(st.size() == 1000 + 2 * threads) : "does not contain correct number of elements";
+        for (int k = 0; k < 1000; k++)
+            assert(st.get(k) == 10 * threads) : "lost an update to key " + k;
+        for (int t = 0; t < threads; t++) {
+            assert(st.get(1000 + t) == t)       : "putIfAbsent replaced a value";
+            assert(st.get(2000 + t) == -1)      : "computeIfAbsent did not add key";
+        }
+
+        System.out.println("  Testing merge() deleting keys... ");
+
+        st.merge(0, 0, (a, b) -> null);
+        assert(!st.contains(0))                 : "merge returning null did not delete key";
+        assert(st.merge(0, 5, Integer::sum) == 5) : "merge into missing key did not store value";
+
+        System.out.println("  DONE\n");
+    }
+    
+    
+    
     /**
      * Test string operations on symbol table implementation. No JUnit; ugly.
      * 
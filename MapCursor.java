@@ -0,0 +1,49 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Cursor over the key-value pairs of a symbol table. A new cursor sits before the
+ * first pair, advance() moves it to the next one, and key() and value() read the pair
+ * it is on, so a full scan allocates nothing but the cursor itself.
+ * The table must not be modified while a cursor over it is in use.
+ *
+ * @author Ian Skelskey
+ * @param <Key> search key
+ * @param <Value> return type
+ */
+public interface MapCursor<Key, Value> {
+
+    //move to the next pair, false once every pair has been visited
+    boolean advance();
+
+    //key of the current pair
+    Key key();
+
+    //value of the current pair
+    Value value();
+
+    //the keys this cursor visits, as an Iterator driven by the cursor
+    default Iterator<Key> keyIterator() {
+        return new Iterator<Key>() {
+            private boolean ready; // cursor already advanced onto the next key
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready && !done) {
+                    ready = advance();
+                    done = !ready;
+                }
+                return ready;
+            }
+
+            @Override
+            public Key next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                ready = false;
+                return key();
+            }
+        };
+    }
+}
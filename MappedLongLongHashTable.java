@@ -0,0 +1,403 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MappedLongLongHashTable class
+ * Defined as: the OffHeapLongLongHashTable layout (16-byte key/value slots, linear
+ * probing, fibonacci hashing) kept in a memory-mapped file, so the table outlives the
+ * process. Opening an existing file only maps it: the operating system reads in a page
+ * of slots the first time it is touched, so a table of any size opens in milliseconds.
+ * The file starts with a 4 KiB header (magic number, format version, slot count, size,
+ * the side-stored 0 key, a dirty flag) that is updated on every change. Changes are
+ * durable once flush() or close() returns. The first change after a flush sets the
+ * dirty flag on disk and flush() clears it, so a file reopened with the flag set was
+ * not closed cleanly: its slots may hold a half-done removal and its size may be off,
+ * and it is rehashed into a fresh file before use. Growing writes a new file next to
+ * the old one and renames it into place, so the old file stays valid until the new
+ * one is complete.
+ * @author Ian Skelskey
+ * @version 1.0
+*/
+
+public class MappedLongLongHashTable implements AutoCloseable {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final long EMPTY = 0; // key of an unused slot
+  private static final int SLOT_BYTES = 16;
+  private static final int CHUNK_SHIFT = 26; // log2 of the slots in one mapping
+  private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+  // header layout
+  private static final int MAGIC = 0x534B4C48; // "SKLH"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 4096; // one page, so slots start page aligned
+  private static final int MAGIC_AT = 0;
+  private static final int VERSION_AT = 4;
+  private static final int SLOTS_AT = 8;
+  private static final int SIZE_AT = 16;
+  private static final int ZERO_VALUE_AT = 24;
+  private static final int HAS_ZERO_KEY_AT = 32;
+  private static final int DIRTY_AT = 36; // nonzero from the first change after a flush until the next flush
+
+  // Member variables
+  private final Path file;
+  private long M; // hash table size in slots, always a power of two
+  private long N; // number of key-value pairs in the slots
+  private int shift; // 64 - log2(M), keeps the top bits of the hash
+
+  private FileChannel channel;
+  private MappedByteBuffer header;
+  private MappedByteBuffer[] chunks; // slot i is at byte (i & CHUNK_MASK) * SLOT_BYTES of chunks[i >>> CHUNK_SHIFT]
+
+  MappedLongLongHashTable(Path file) throws IOException {
+    this(file, DEFAULT_SIZE);
+  }
+
+  // open the table stored in file, or create it with room for size slots if the file
+  // is missing or empty
+  MappedLongLongHashTable(Path file, long size) throws IOException {
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    this.file = file;
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      boolean created = channel.size() == 0;
+      if(created){
+        header = mapHeader(channel);
+        writeHeader(header, Long.highestOneBit(Math.max(2, size) * 2 - 1)); // round up to a power of two
+      } else {
+        if(channel.size() < HEADER_BYTES)
+          throw new IOException(file + " is not a hash table file");
+        header = mapHeader(channel);
+        if(header.getInt(MAGIC_AT) != MAGIC)
+          throw new IOException(file + " is not a hash table file");
+        if(header.getInt(VERSION_AT) != VERSION)
+          throw new IOException(file + " has unsupported format version " + header.getInt(VERSION_AT));
+      }
+
+      long slots = header.getLong(SLOTS_AT);
+      long pairs = header.getLong(SIZE_AT);
+      if(!created){
+        // the slot count drives every index mask, so it must be sane before it is used
+        if(slots < 2 || Long.bitCount(slots) != 1 || slots > (Long.MAX_VALUE - HEADER_BYTES) / SLOT_BYTES)
+          throw new IOException(file + " has a corrupt header: " + slots + " slots");
+        if(channel.size() != HEADER_BYTES + slots * SLOT_BYTES)
+          throw new IOException(file + " is " + channel.size() + " bytes, but its header says "
+              + (HEADER_BYTES + slots * SLOT_BYTES));
+        if(header.getInt(DIRTY_AT) == 0 && (pairs < 0 || pairs > slots))
+          throw new IOException(file + " has a corrupt header: " + pairs + " pairs in " + slots + " slots");
+      }
+      setSize(slots);
+      N = pairs;
+      chunks = mapSlots(channel, M);
+
+      if(header.getInt(DIRTY_AT) != 0){
+        // not closed cleanly, so N and the slots cannot be trusted: rebuild and recount
+        try {
+          resize(M);
+        } catch (UncheckedIOException e) {
+          throw e.getCause();
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  // fibonacci hashing: multiply by 2^64 / phi and keep the high bits
+  private long hash(long key){
+    return (key * 0x9E3779B97F4A7C15L) >>> shift;
+  }
+
+  // put key-value pair into the table
+  public void put(long key, long val) {
+    checkOpen();
+    markDirty();
+    if(key == EMPTY){
+      header.putLong(ZERO_VALUE_AT, val);
+      header.putInt(HAS_ZERO_KEY_AT, 1);
+      return;
+    }
+
+    long i = hash(key);
+    for(long k; (k = keyAt(i)) != EMPTY; i = (i + 1) & (M - 1)){
+      if(k == key){
+        setValueAt(i, val);
+        return;
+      }
+    }
+
+    if(N + 1 > MAX_LOAD * M){
+      resize(2 * M);
+      markDirty(); // the new file was flushed clean
+      i = freeSlot(key);
+    }
+
+    setValueAt(i, val);
+    setKeyAt(i, key);
+    header.putLong(SIZE_AT, ++N);
+  }
+
+  // value paired with key, or 0 if there is none
+  public long get(long key) {
+    return getOrDefault(key, 0);
+  }
+
+  // value paired with key, or defaultValue if there is none
+  public long getOrDefault(long key, long defaultValue) {
+    checkOpen();
+    if(key == EMPTY)
+      return hasZeroKey() ? header.getLong(ZERO_VALUE_AT) : defaultValue;
+
+    long i = indexOf(key);
+    return i >= 0 ? valueAt(i) : defaultValue;
+  }
+
+  // is there a value paired with key?
+  public boolean containsKey(long key) {
+    checkOpen();
+    if(key == EMPTY)
+      return hasZeroKey();
+    return indexOf(key) >= 0;
+  }
+
+  // remove key (and its value) from table, true if it was there
+  public boolean remove(long key) {
+    checkOpen();
+    markDirty();
+    if(key == EMPTY){
+      boolean had = hasZeroKey();
+      header.putInt(HAS_ZERO_KEY_AT, 0);
+      return had;
+    }
+
+    long i = indexOf(key);
+    if(i < 0)
+      return false;
+
+    removeAt(i);
+    header.putLong(SIZE_AT, --N);
+    return true;
+  }
+
+  // is the table empty?
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // number of key-value pairs
+  public long size() {
+    checkOpen();
+    return hasZeroKey() ? N + 1 : N;
+  }
+
+  // write every change made so far to the storage device, then mark the file clean
+  public void flush() throws IOException {
+    checkOpen();
+    for(MappedByteBuffer chunk : chunks)
+      chunk.force();
+    header.putInt(DIRTY_AT, 0);
+    header.force();
+    channel.force(true);
+  }
+
+  // flush, then unmap the file; the table cannot be used afterwards
+  @Override
+  public void close() throws IOException {
+    if(chunks == null)
+      return;
+    try {
+      flush();
+    } finally {
+      DirectBuffers.free(chunks);
+      DirectBuffers.free(header);
+      chunks = null;
+      header = null;
+      channel.close();
+    }
+  }
+
+  // set the dirty flag on disk before the first change after a flush reaches the file
+  private void markDirty() {
+    if(header.getInt(DIRTY_AT) == 0){
+      header.putInt(DIRTY_AT, 1);
+      header.force();
+    }
+  }
+
+  private boolean hasZeroKey() {
+    return header.getInt(HAS_ZERO_KEY_AT) != 0;
+  }
+
+  // index of key, or -1 if it is not there
+  private long indexOf(long key) {
+    for(long i = hash(key), k; (k = keyAt(i)) != EMPTY; i = (i + 1) & (M - 1)){
+      if(k == key)
+        return i;
+    }
+    return -1;
+  }
+
+  // first empty slot on key's probe path
+  private long freeSlot(long key) {
+    long i = hash(key);
+    while(keyAt(i) != EMPTY)
+      i = (i + 1) & (M - 1);
+    return i;
+  }
+
+  // empty slot i, shifting back later keys of its cluster that may take its place
+  private void removeAt(long i) {
+    for(long j = (i + 1) & (M - 1), k; (k = keyAt(j)) != EMPTY; j = (j + 1) & (M - 1)){
+      // the key in j can move to i unless its home slot lies after i
+      if(((j - hash(k)) & (M - 1)) >= ((j - i) & (M - 1))){
+        setKeyAt(i, k);
+        setValueAt(i, valueAt(j));
+        i = j;
+      }
+    }
+    setKeyAt(i, EMPTY);
+  }
+
+  private long keyAt(long i) {
+    return chunks[(int) (i >>> CHUNK_SHIFT)].getLong((int) (i & CHUNK_MASK) * SLOT_BYTES);
+  }
+
+  private long valueAt(long i) {
+    return chunks[(int) (i >>> CHUNK_SHIFT)].getLong((int) (i & CHUNK_MASK) * SLOT_BYTES + 8);
+  }
+
+  private void setKeyAt(long i, long key) {
+    chunks[(int) (i >>> CHUNK_SHIFT)].putLong((int) (i & CHUNK_MASK) * SLOT_BYTES, key);
+  }
+
+  private void setValueAt(long i, long val) {
+    chunks[(int) (i >>> CHUNK_SHIFT)].putLong((int) (i & CHUNK_MASK) * SLOT_BYTES + 8, val);
+  }
+
+  private void setSize(long size) {
+    M = size;
+    shift = Long.numberOfLeadingZeros(M) + 1;
+  }
+
+  private static MappedByteBuffer mapHeader(FileChannel channel) throws IOException {
+    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    return buffer;
+  }
+
+  // header of an empty table of size slots
+  private static void writeHeader(MappedByteBuffer header, long size) {
+    header.putInt(MAGIC_AT, MAGIC);
+    header.putInt(VERSION_AT, VERSION);
+    header.putLong(SLOTS_AT, size);
+    header.putLong(SIZE_AT, 0);
+    header.putLong(ZERO_VALUE_AT, 0);
+    header.putInt(HAS_ZERO_KEY_AT, 0);
+    header.putInt(DIRTY_AT, 0);
+  }
+
+  // map the slot area of a table of size slots, growing the file if it is shorter
+  private static MappedByteBuffer[] mapSlots(FileChannel channel, long size) throws IOException {
+    long chunkSlots = Math.min(size, 1L << CHUNK_SHIFT);
+    MappedByteBuffer[] buffers = new MappedByteBuffer[(int) (size / chunkSlots)];
+    for(int c = 0; c < buffers.length; c++){
+      buffers[c] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + c * chunkSlots * SLOT_BYTES, chunkSlots * SLOT_BYTES);
+      buffers[c].order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return buffers;
+  }
+
+  // rehash into a new file of size slots, then rename it over the old one. A key met
+  // twice (left by a half-done removal) is kept once, and N is recounted
+  private void resize(long size) {
+    Path next = file.resolveSibling(file.getFileName() + ".resize");
+    MappedByteBuffer[] old = chunks;
+    MappedByteBuffer oldHeader = header;
+    FileChannel oldChannel = channel;
+    long oldM = M;
+
+    FileChannel nextChannel = null;
+    MappedByteBuffer nextHeader = null;
+    MappedByteBuffer[] nextChunks = null;
+    boolean done = false;
+    try {
+      nextChannel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      nextHeader = mapHeader(nextChannel);
+      writeHeader(nextHeader, size);
+      nextHeader.putLong(ZERO_VALUE_AT, oldHeader.getLong(ZERO_VALUE_AT));
+      nextHeader.putInt(HAS_ZERO_KEY_AT, oldHeader.getInt(HAS_ZERO_KEY_AT));
+
+      nextChunks = mapSlots(nextChannel, size);
+      setSize(size);
+      channel = nextChannel;
+      header = nextHeader;
+      chunks = nextChunks;
+      long n = 0;
+      for(long j = 0; j < oldM; j++){
+        MappedByteBuffer chunk = old[(int) (j >>> CHUNK_SHIFT)];
+        int at = (int) (j & CHUNK_MASK) * SLOT_BYTES;
+        long k = chunk.getLong(at);
+        if(k != EMPTY && indexOf(k) < 0){
+          long i = freeSlot(k);
+          setKeyAt(i, k);
+          setValueAt(i, chunk.getLong(at + 8));
+          n++;
+        }
+      }
+      N = n;
+      header.putLong(SIZE_AT, n);
+
+      flush();
+      Files.move(next, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      done = true;
+    } catch (IOException e) {
+      throw new UncheckedIOException("could not grow " + file, e);
+    } finally {
+      if(!done){
+        // carry on with the old file as if nothing happened, whatever went wrong
+        setSize(oldM);
+        N = oldHeader.getLong(SIZE_AT);
+        channel = oldChannel;
+        header = oldHeader;
+        chunks = old;
+        if(nextChunks != null)
+          DirectBuffers.free(nextChunks);
+        if(nextHeader != null)
+          DirectBuffers.free(nextHeader);
+        try {
+          if(nextChannel != null)
+            nextChannel.close();
+          Files.deleteIfExists(next);
+        } catch (IOException ignored) {
+          // the failure that brought us here is the one reported
+        }
+      }
+    }
+
+    DirectBuffers.free(old);
+    DirectBuffers.free(oldHeader);
+    try {
+      oldChannel.close();
+    } catch (IOException e) {
+      // the old file has already been replaced
+    }
+  }
+
+  private void checkOpen() {
+    if(chunks == null)
+      throw new IllegalStateException("table is closed");
+  }
+
+}
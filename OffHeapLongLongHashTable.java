@@ -0,0 +1,240 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * OffHeapLongLongHashTable class
+ * Defined as: the LongLongHashTable design (linear probing, fibonacci hashing, key 0
+ * kept on the side) with its slots stored outside the Java heap, in direct ByteBuffers.
+ * Each slot is 16 bytes, the key followed by its value, so a probe reads one cache line.
+ * The garbage collector never scans or copies the table, whatever its size; close()
+ * hands the memory back straight away. Slots are spread over buffers of at most 2^26
+ * slots (1 GiB) each, since one ByteBuffer cannot hold more than 2 GiB.
+ * @author Ian Skelskey
+ * @version 1.0
+*/
+
+public class OffHeapLongLongHashTable implements AutoCloseable {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double MAX_LOAD = 0.5;
+  private static final long EMPTY = 0; // key of an unused slot
+  private static final int SLOT_BYTES = 16;
+  private static final int CHUNK_SHIFT = 26; // log2 of the slots in one buffer
+  private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+  // Member variables
+  private long M; // hash table size in slots, always a power of two
+  private long N; // number of key-value pairs in the slots
+  private int shift; // 64 - log2(M), keeps the top bits of the hash
+
+  private ByteBuffer[] chunks; // slot i is at byte (i & CHUNK_MASK) * SLOT_BYTES of chunks[i >>> CHUNK_SHIFT]
+
+  private boolean hasZeroKey;
+  private long zeroValue;
+
+  OffHeapLongLongHashTable() {
+    this(DEFAULT_SIZE);
+  }
+
+  OffHeapLongLongHashTable(long size){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    long slots = Long.highestOneBit(Math.max(2, size) * 2 - 1); // round up to a power of two
+    chunks = allocate(slots);
+    setSize(slots);
+  }
+
+  // fibonacci hashing: multiply by 2^64 / phi and keep the high bits
+  private long hash(long key){
+    return (key * 0x9E3779B97F4A7C15L) >>> shift;
+  }
+
+  // put key-value pair into the table
+  public void put(long key, long val) {
+    checkOpen();
+    if(key == EMPTY){
+      hasZeroKey = true;
+      zeroValue = val;
+      return;
+    }
+
+    long i = hash(key);
+    for(long k; (k = keyAt(i)) != EMPTY; i = (i + 1) & (M - 1)){
+      if(k == key){
+        setValueAt(i, val);
+        return;
+      }
+    }
+
+    if(N + 1 > MAX_LOAD * M){
+      resize(2 * M);
+      i = freeSlot(key);
+    }
+
+    setKeyAt(i, key);
+    setValueAt(i, val);
+    N++;
+  }
+
+  // value paired with key, or 0 if there is none
+  public long get(long key) {
+    return getOrDefault(key, 0);
+  }
+
+  // value paired with key, or defaultValue if there is none
+  public long getOrDefault(long key, long defaultValue) {
+    checkOpen();
+    if(key == EMPTY)
+      return hasZeroKey ? zeroValue : defaultValue;
+
+    long i = indexOf(key);
+    return i >= 0 ? valueAt(i) : defaultValue;
+  }
+
+  // is there a value paired with key?
+  public boolean containsKey(long key) {
+    checkOpen();
+    if(key == EMPTY)
+      return hasZeroKey;
+    return indexOf(key) >= 0;
+  }
+
+  // remove key (and its value) from table, true if it was there
+  public boolean remove(long key) {
+    checkOpen();
+    if(key == EMPTY){
+      boolean had = hasZeroKey;
+      hasZeroKey = false;
+      return had;
+    }
+
+    long i = indexOf(key);
+    if(i < 0)
+      return false;
+
+    removeAt(i);
+    N--;
+    return true;
+  }
+
+  // is the table empty?
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // number of key-value pairs
+  public long size() {
+    return hasZeroKey ? N + 1 : N;
+  }
+
+  // bytes of memory held outside the heap
+  public long offHeapBytes() {
+    return chunks == null ? 0 : M * SLOT_BYTES;
+  }
+
+  // free the table's memory; the table cannot be used afterwards
+  @Override
+  public void close() {
+    if(chunks == null)
+      return;
+    DirectBuffers.free(chunks);
+    chunks = null;
+    N = 0;
+    hasZeroKey = false;
+  }
+
+  // index of key, or -1 if it is not there
+  private long indexOf(long key) {
+    for(long i = hash(key), k; (k = keyAt(i)) != EMPTY; i = (i + 1) & (M - 1)){
+      if(k == key)
+        return i;
+    }
+    return -1;
+  }
+
+  // first empty slot on key's probe path
+  private long freeSlot(long key) {
+    long i = hash(key);
+    while(keyAt(i) != EMPTY)
+      i = (i + 1) & (M - 1);
+    return i;
+  }
+
+  // empty slot i, shifting back later keys of its cluster that may take its place
+  private void removeAt(long i) {
+    for(long j = (i + 1) & (M - 1), k; (k = keyAt(j)) != EMPTY; j = (j + 1) & (M - 1)){
+      // the key in j can move to i unless its home slot lies after i
+      if(((j - hash(k)) & (M - 1)) >= ((j - i) & (M - 1))){
+        setKeyAt(i, k);
+        setValueAt(i, valueAt(j));
+        i = j;
+      }
+    }
+    setKeyAt(i, EMPTY);
+  }
+
+  private long keyAt(long i) {
+    return chunks[(int) (i >>> CHUNK_SHIFT)].getLong((int) (i & CHUNK_MASK) * SLOT_BYTES);
+  }
+
+  private long valueAt(long i) {
+    return chunks[(int) (i >>> CHUNK_SHIFT)].getLong((int) (i & CHUNK_MASK) * SLOT_BYTES + 8);
+  }
+
+  private void setKeyAt(long i, long key) {
+    chunks[(int) (i >>> CHUNK_SHIFT)].putLong((int) (i & CHUNK_MASK) * SLOT_BYTES, key);
+  }
+
+  private void setValueAt(long i, long val) {
+    chunks[(int) (i >>> CHUNK_SHIFT)].putLong((int) (i & CHUNK_MASK) * SLOT_BYTES + 8, val);
+  }
+
+  // zeroed buffers for size slots; touches no fields, so if a chunk cannot be
+  // allocated the table is left as it was (and the chunks already made are freed)
+  private ByteBuffer[] allocate(long size) {
+    long chunkSlots = Math.min(size, 1L << CHUNK_SHIFT);
+    ByteBuffer[] buffers = new ByteBuffer[(int) (size / chunkSlots)];
+    int c = 0;
+    try {
+      for(; c < buffers.length; c++)
+        buffers[c] = ByteBuffer.allocateDirect((int) chunkSlots * SLOT_BYTES).order(ByteOrder.nativeOrder());
+    } catch(OutOfMemoryError e) {
+      DirectBuffers.free(Arrays.copyOf(buffers, c));
+      throw e;
+    }
+    return buffers;
+  }
+
+  // number of slots, once chunks holds that many
+  private void setSize(long size) {
+    M = size;
+    shift = Long.numberOfLeadingZeros(M) + 1;
+  }
+
+  private void resize(long size) {
+    ByteBuffer[] old = chunks;
+    long oldM = M;
+
+    chunks = allocate(size);
+    setSize(size);
+    for(long j = 0; j < oldM; j++){
+      ByteBuffer chunk = old[(int) (j >>> CHUNK_SHIFT)];
+      int at = (int) (j & CHUNK_MASK) * SLOT_BYTES;
+      long k = chunk.getLong(at);
+      if(k != EMPTY){
+        long i = freeSlot(k);
+        setKeyAt(i, k);
+        setValueAt(i, chunk.getLong(at + 8));
+      }
+    }
+    DirectBuffers.free(old);
+  }
+
+  private void checkOpen() {
+    if(chunks == null)
+      throw new IllegalStateException("table is closed");
+  }
+
+}
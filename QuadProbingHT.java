@@ -1,29 +1,222 @@
 /**
- * TwoProbeChainHT class
- * Defined as: making each place in the array store a collection of all the elements that have that hash.
- * Stores a linked list of all elements hashed to that location 
- *  at every array position to resolve collisions.
+ * QuadProbingHT class
+ * Defined as: hashing to an occupied index, then jumping 1, 2, 3, ... slots further
+ * on each following probe (so the i-th probe lands triangular(i) slots from home).
+ * With a power-of-two table this sequence visits every slot exactly once, and keys
+ * with different home slots stop piling into the same run as they do with linear probing.
+ * Deleted slots are marked and reused by later inserts, and are cleared out whenever
+ * the table is rebuilt.
  * @author Ian Skelskey
- * @version 1.0
+ * @version 1.1
  * @param <Key>
  * @param <Value>
 */
 
-public class QuadProbingHT<Key, Value> extends LinearProbingHT<Key,Value> implements SymbolTable<Key,Value>{
+public class QuadProbingHT<Key, Value> implements SymbolTable<Key, Value> {
 
-  private int M;
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double DEFAULT_MAX_LOAD = 0.5;
+  private static final double DEFAULT_MIN_LOAD = 0.125;
+  private static final Object DELETED = new Object(); // marks a slot whose key was deleted
+
+  // Member variables
+  private int M; // hash table size, always a power of two
+  private int N; // number of key-value pairs
+  private int used; // slots holding a key or DELETED
+
+  private final int minSize;
+  private final double maxLoad;
+  private final double minLoad;
+  private final HashStrategy<? super Key> hasher;
+
+  private Object[] keys;
+  private Value[] vals;
 
   QuadProbingHT(){
-    this(997);
+    this(DEFAULT_SIZE);
   }
 
   QuadProbingHT(int M){
-    super(M);
-    this.M = M;
+    this(M, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD);
+  }
+
+  QuadProbingHT(int M, HashStrategy<? super Key> hasher){
+    this(M, DEFAULT_MAX_LOAD, DEFAULT_MIN_LOAD, hasher);
+  }
+
+  QuadProbingHT(int M, double maxLoad, double minLoad){
+    this(M, maxLoad, minLoad, HashStrategy.murmur3());
+  }
+
+  QuadProbingHT(int M, double maxLoad, double minLoad, HashStrategy<? super Key> hasher){
+    if (M < 1)
+      throw new IllegalArgumentException("size must be positive");
+    if (maxLoad <= 0 || maxLoad >= 1)
+      throw new IllegalArgumentException("maxLoad must be in (0, 1)");
+    if (minLoad < 0 || 2 * minLoad >= maxLoad)
+      throw new IllegalArgumentException("minLoad must be in [0, maxLoad / 2)");
+
+    this.M = Integer.highestOneBit(Math.max(2, M) * 2 - 1); // round up to a power of two
+    this.minSize = this.M;
+    this.maxLoad = maxLoad;
+    this.minLoad = minLoad;
+    this.hasher = hasher;
+
+    this.keys = new Object[this.M];
+    this.vals = (Value[]) new Object[this.M];
+  }
+
+  public int hash(Key key){
+    return (int) hasher.hash(key) & (M - 1);
   }
 
+  // slot visited by the i-th probe for key
   public int hash(Key key, int i) {
-    return (((key.hashCode() & 0x7fffffff) + i * i) % M);
+    return (hash(key) + i * (i + 1) / 2) & (M - 1);
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int free = -1; // first deleted slot on the probe path
+    int i = hash(key);
+    for(int step = 1; keys[i] != null; i = (i + step++) & (M - 1)){
+      if(keys[i] == DELETED){
+        if(free < 0)
+          free = i;
+      } else if(keys[i].equals(key)){
+        vals[i] = val;
+        return;
+      }
+    }
+
+    if(free >= 0){
+      i = free;
+    } else if(used + 1 > maxLoad * M){
+      // grow if the live keys need it, otherwise just sweep out deleted slots
+      resize(N + 1 > maxLoad * M / 2 ? 2 * M : M);
+      i = freeSlot(key);
+    }
+    if(keys[i] == null)
+      used++;
+
+    keys[i] = key;
+    vals[i] = val;
+    N++;
+  }
+
+  // get value paired with key
+  @Override
+  public Value get(Key key) {
+    int i = indexOf(key);
+    return i >= 0 ? vals[i] : null;
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    int i = indexOf(key);
+    if(i < 0)
+      return;
+
+    keys[i] = DELETED;
+    vals[i] = null;
+    N--;
+
+    if(M > minSize && N < minLoad * M)
+      resize(M / 2);
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return indexOf(key) >= 0;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N;
+  }
+
+  // all keys in the table, read from the slot array as they are iterated
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every key-value pair
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new Cursor();
+  }
+
+  // index of key, or -1 if it is not there
+  private int indexOf(Key key) {
+    int i = hash(key);
+    for(int step = 1; keys[i] != null; i = (i + step++) & (M - 1)){
+      if(keys[i] != DELETED && keys[i].equals(key))
+        return i;
+    }
+    return -1;
+  }
+
+  // first empty slot on key's probe path
+  private int freeSlot(Key key) {
+    int i = hash(key);
+    for(int step = 1; keys[i] != null; i = (i + step++) & (M - 1));
+    return i;
+  }
+
+  // rebuild the table at the given size, dropping all deleted slots
+  private void resize(int size) {
+    Object[] oldKeys = keys;
+    Value[] oldVals = vals;
+
+    M = size;
+    keys = new Object[M];
+    vals = (Value[]) new Object[M];
+    used = N;
+
+    for(int j = 0; j < oldKeys.length; j++){
+      if(oldKeys[j] != null && oldKeys[j] != DELETED){
+        int i = freeSlot((Key) oldKeys[j]);
+        keys[i] = oldKeys[j];
+        vals[i] = oldVals[j];
+      }
+    }
+  }
+
+  private class Cursor implements MapCursor<Key,Value> {
+    private int i = -1; // slot of the current pair
+
+    @Override
+    public boolean advance() {
+      while(i < M - 1){
+        if(keys[++i] != null && keys[i] != DELETED)
+          return true;
+      }
+      return false;
+    }
+
+    @Override
+    public Key key() {
+      return (Key) keys[i];
+    }
+
+    @Override
+    public Value value() {
+      return vals[i];
+    }
   }
 
 }
\ No newline at end of file
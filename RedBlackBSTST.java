@@ -0,0 +1,450 @@
+import java.util.ArrayDeque;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+/**
+ * RedBlackBSTST class
+ * Defined as: an ordered symbol table kept in a left-leaning red-black tree, a binary
+ * search tree that mirrors a 2-3 tree by colouring the link to each node red or black.
+ * Red links lean left, no node has two red links, and every path from the root to a
+ * null link has the same number of black links, so the height never exceeds 2 lg n.
+ * Every operation, including rank, select and size(lo, hi), is O(log n) in the worst
+ * case, whatever order the keys arrive in, and the recursion is never deeper than that.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class RedBlackBSTST<Key extends Comparable<Key>, Value> implements OrderedSymbolTable<Key, Value> {
+
+    private static final boolean RED = true;
+    private static final boolean BLACK = false;
+
+    private Node root;
+
+    private class Node {
+
+        private final Key key;
+        private Value val;
+        private Node left, right;
+        private int N; // nodes in the subtree rooted here
+        private boolean color; // colour of the link from the parent
+
+        public Node(Key key, Value val, int N, boolean color) {
+            this.key = key;
+            this.val = val;
+            this.N = N;
+            this.color = color;
+        }
+    }
+
+    private boolean isRed(Node x) {
+        if (x == null) {
+            return false;
+        }
+        return x.color == RED;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    private int size(Node x) {
+        if (x == null) {
+            return 0;
+        } else {
+            return x.N;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public Value get(Key key) {
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                x = x.right;
+            } else {
+                return x.val;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(Key key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void put(Key key, Value val) {
+        if (val == null || key == null) {
+            throw new IllegalArgumentException("value or key cannot be null");
+        }
+        root = put(root, key, val);
+        root.color = BLACK;
+    }
+
+    private Node put(Node h, Key key, Value val) {
+        // Insert at the bottom with a red link, then fix up on the way back to the root.
+        if (h == null) {
+            return new Node(key, val, 1, RED);
+        }
+        int cmp = key.compareTo(h.key);
+        if (cmp < 0) {
+            h.left = put(h.left, key, val);
+        } else if (cmp > 0) {
+            h.right = put(h.right, key, val);
+        } else {
+            h.val = val;
+        }
+
+        if (isRed(h.right) && !isRed(h.left)) {
+            h = rotateLeft(h);
+        }
+        if (isRed(h.left) && isRed(h.left.left)) {
+            h = rotateRight(h);
+        }
+        if (isRed(h.left) && isRed(h.right)) {
+            flipColors(h);
+        }
+        h.N = size(h.left) + size(h.right) + 1;
+        return h;
+    }
+
+    @Override
+    public void deleteMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("symbol table is empty");
+        }
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = RED;
+        }
+        root = deleteMin(root);
+        if (!isEmpty()) {
+            root.color = BLACK;
+        }
+    }
+
+    private Node deleteMin(Node h) {
+        if (h.left == null) {
+            return null;
+        }
+        if (!isRed(h.left) && !isRed(h.left.left)) {
+            h = moveRedLeft(h);
+        }
+        h.left = deleteMin(h.left);
+        return balance(h);
+    }
+
+    @Override
+    public void deleteMax() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("symbol table is empty");
+        }
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = RED;
+        }
+        root = deleteMax(root);
+        if (!isEmpty()) {
+            root.color = BLACK;
+        }
+    }
+
+    private Node deleteMax(Node h) {
+        if (isRed(h.left)) {
+            h = rotateRight(h);
+        }
+        if (h.right == null) {
+            return null;
+        }
+        if (!isRed(h.right) && !isRed(h.right.left)) {
+            h = moveRedRight(h);
+        }
+        h.right = deleteMax(h.right);
+        return balance(h);
+    }
+
+    @Override
+    public void delete(Key key) {
+        if (!contains(key)) {
+            return;
+        }
+        if (!isRed(root.left) && !isRed(root.right)) {
+            root.color = RED;
+        }
+        root = delete(root, key);
+        if (!isEmpty()) {
+            root.color = BLACK;
+        }
+    }
+
+    private Node delete(Node h, Key key) {
+        // key is in the subtree rooted at h; keep the current node from being a 2-node
+        // on the way down so the key can be taken out of a 3-node or 4-node
+        if (key.compareTo(h.key) < 0) {
+            if (!isRed(h.left) && !isRed(h.left.left)) {
+                h = moveRedLeft(h);
+            }
+            h.left = delete(h.left, key);
+        } else {
+            if (isRed(h.left)) {
+                h = rotateRight(h);
+            }
+            if (key.compareTo(h.key) == 0 && h.right == null) {
+                return null;
+            }
+            if (!isRed(h.right) && !isRed(h.right.left)) {
+                h = moveRedRight(h);
+            }
+            if (key.compareTo(h.key) == 0) {
+                // replace h by its successor, which is removed from the right subtree
+                Node x = min(h.right);
+                Node t = new Node(x.key, x.val, h.N, h.color);
+                t.left = h.left;
+                t.right = deleteMin(h.right);
+                h = t;
+            } else {
+                h.right = delete(h.right, key);
+            }
+        }
+        return balance(h);
+    }
+
+    // make a left-leaning link lean right
+    private Node rotateRight(Node h) {
+        Node x = h.left;
+        h.left = x.right;
+        x.right = h;
+        x.color = h.color;
+        h.color = RED;
+        x.N = h.N;
+        h.N = size(h.left) + size(h.right) + 1;
+        return x;
+    }
+
+    // make a right-leaning link lean left
+    private Node rotateLeft(Node h) {
+        Node x = h.right;
+        h.right = x.left;
+        x.left = h;
+        x.color = h.color;
+        h.color = RED;
+        x.N = h.N;
+        h.N = size(h.left) + size(h.right) + 1;
+        return x;
+    }
+
+    // split a temporary 4-node, or join h and its children back into one
+    private void flipColors(Node h) {
+        h.color = !h.color;
+        h.left.color = !h.left.color;
+        h.right.color = !h.right.color;
+    }
+
+    // h is red and h.left and h.left.left are black: make h.left or one of its
+    // children red
+    private Node moveRedLeft(Node h) {
+        flipColors(h);
+        if (isRed(h.right.left)) {
+            h.right = rotateRight(h.right);
+            h = rotateLeft(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    // h is red and h.right and h.right.left are black: make h.right or one of its
+    // children red
+    private Node moveRedRight(Node h) {
+        flipColors(h);
+        if (isRed(h.left.left)) {
+            h = rotateRight(h);
+            flipColors(h);
+        }
+        return h;
+    }
+
+    // restore the red-black invariants at h on the way back up after a delete
+    private Node balance(Node h) {
+        if (isRed(h.right) && !isRed(h.left)) {
+            h = rotateLeft(h);
+        }
+        if (isRed(h.left) && isRed(h.left.left)) {
+            h = rotateRight(h);
+        }
+        if (isRed(h.left) && isRed(h.right)) {
+            flipColors(h);
+        }
+        h.N = size(h.left) + size(h.right) + 1;
+        return h;
+    }
+
+    @Override
+    public Key min() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("symbol table is empty");
+        }
+        return min(root).key;
+    }
+
+    private Node min(Node x) {
+        while (x.left != null) {
+            x = x.left;
+        }
+        return x;
+    }
+
+    @Override
+    public Key max() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("symbol table is empty");
+        }
+        Node x = root;
+        while (x.right != null) {
+            x = x.right;
+        }
+        return x.key;
+    }
+
+    @Override
+    public Key floor(Key key) {
+        Key best = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x.key;
+            }
+            if (cmp < 0) {
+                x = x.left;
+            } else {
+                best = x.key;
+                x = x.right;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Key ceiling(Key key) {
+        Key best = null;
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x.key;
+            }
+            if (cmp > 0) {
+                x = x.right;
+            } else {
+                best = x.key;
+                x = x.left;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public Key select(int k) {
+        if (k < 0 || k >= size()) {
+            throw new IllegalArgumentException("rank " + k + " is out of range");
+        }
+        Node x = root;
+        while (true) {
+            int t = size(x.left);
+            if (t > k) {
+                x = x.left;
+            } else if (t < k) {
+                k -= t + 1;
+                x = x.right;
+            } else {
+                return x.key;
+            }
+        }
+    }
+
+    @Override
+    public int rank(Key key) {
+        // number of keys less than key
+        int r = 0;
+        Node x = root;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                r += 1 + size(x.left);
+                x = x.right;
+            } else {
+                return r + size(x.left);
+            }
+        }
+        return r;
+    }
+
+    @Override
+    public int size(Key lo, Key hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        } else if (contains(hi)) {
+            return rank(hi) - rank(lo) + 1;
+        } else {
+            return rank(hi) - rank(lo);
+        }
+    }
+
+    @Override
+    public Iterable<Key> keys() {
+        if (isEmpty()) {
+            return new ArrayDeque<>();
+        }
+        return keys(min(), max());
+    }
+
+    @Override
+    public Iterable<Key> keys(Key lo, Key hi) {
+        Queue<Key> queue = new ArrayDeque<>();
+        keys(root, queue, lo, hi);
+        return queue;
+    }
+
+    private void keys(Node x, Queue<Key> queue, Key lo, Key hi) {
+        if (x == null) {
+            return;
+        }
+        int cmplo = lo.compareTo(x.key);
+        int cmphi = hi.compareTo(x.key);
+        if (cmplo < 0) {
+            keys(x.left, queue, lo, hi);
+        }
+        if (cmplo <= 0 && cmphi >= 0) {
+            queue.add(x.key);
+        }
+        if (cmphi > 0) {
+            keys(x.right, queue, lo, hi);
+        }
+    }
+
+    // height of the tree, at most 2 lg n
+    public int height() {
+        return height(root);
+    }
+
+    private int height(Node x) {
+        if (x == null) {
+            return 0;
+        }
+        return 1 + Math.max(height(x.left), height(x.right));
+    }
+
+}
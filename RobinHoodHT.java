@@ -0,0 +1,232 @@
+/**
+ * RobinHoodHT class
+ * Defined as: linear probing where an inserted key takes the slot of any key that
+ * sits closer to its home slot than the inserted key already is ("rich" entries give
+ * way to "poor" ones). Probe lengths stay short and even at high load factors, a miss
+ * can stop as soon as it reaches an entry closer to home than itself, and delete
+ * shifts the rest of the run back one slot instead of leaving a tombstone.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class RobinHoodHT<Key, Value> implements SymbolTable<Key, Value> {
+
+  private static final int DEFAULT_SIZE = 1024;
+  private static final double DEFAULT_MAX_LOAD = 0.9;
+
+  // Member variables
+  private int M; // hash table size, always a power of two
+  private int N; // number of key-value pairs
+
+  private final int minSize;
+  private final double maxLoad;
+  private final HashStrategy<? super Key> hasher;
+
+  private Key[] keys;
+  private Value[] vals;
+  private int[] dist; // how far each key sits from its home slot
+
+  RobinHoodHT() {
+    this(DEFAULT_SIZE);
+  }
+
+  RobinHoodHT(int size){
+    this(size, DEFAULT_MAX_LOAD);
+  }
+
+  RobinHoodHT(int size, HashStrategy<? super Key> hasher){
+    this(size, DEFAULT_MAX_LOAD, hasher);
+  }
+
+  RobinHoodHT(int size, double maxLoad){
+    this(size, maxLoad, HashStrategy.murmur3());
+  }
+
+  RobinHoodHT(int size, double maxLoad, HashStrategy<? super Key> hasher){
+    if (size < 1)
+      throw new IllegalArgumentException("size must be positive");
+    if (maxLoad <= 0 || maxLoad >= 1)
+      throw new IllegalArgumentException("maxLoad must be in (0, 1)");
+
+    this.M = Integer.highestOneBit(Math.max(2, size) * 2 - 1); // round up to a power of two
+    this.N = 0;
+    this.minSize = M;
+    this.maxLoad = maxLoad;
+    this.hasher = hasher;
+
+    this.keys = (Key[]) new Object[M];
+    this.vals = (Value[]) new Object[M];
+    this.dist = new int[M];
+  }
+
+  public int hash(Key key){
+    return (int) hasher.hash(key) & (M - 1);
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int i = indexOf(key);
+    if(i >= 0){
+      vals[i] = val;
+      return;
+    }
+
+    if(N + 1 > maxLoad * M)
+      resize(2 * M);
+
+    insert(key, val);
+    N++;
+  }
+
+  // get value paired with key
+  @Override
+  public Value get(Key key) {
+    int i = indexOf(key);
+    return i >= 0 ? vals[i] : null;
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    int i = indexOf(key);
+    if(i < 0)
+      return;
+
+    // backward shift: pull each displaced successor one slot closer to home
+    int j = (i + 1) & (M - 1);
+    while(keys[j] != null && dist[j] > 0){
+      keys[i] = keys[j];
+      vals[i] = vals[j];
+      dist[i] = dist[j] - 1;
+      i = j;
+      j = (j + 1) & (M - 1);
+    }
+    keys[i] = null;
+    vals[i] = null;
+    dist[i] = 0;
+    N--;
+
+    if(M > minSize && N < M / 8)
+      resize(M / 2);
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return indexOf(key) >= 0;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N;
+  }
+
+  // all keys in the table, read from the slot array as they are iterated
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every key-value pair
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new Cursor();
+  }
+
+  // longest distance any key sits from its home slot
+  public int maxProbeLength() {
+    int max = 0;
+    for(int i = 0; i < M; i++){
+      if(keys[i] != null && dist[i] > max)
+        max = dist[i];
+    }
+    return max;
+  }
+
+  // index of key, or -1 once the probe passes where the key would have been placed
+  private int indexOf(Key key) {
+    int i = hash(key);
+    for(int d = 0; keys[i] != null && dist[i] >= d; d++){
+      if(keys[i].equals(key))
+        return i;
+      i = (i + 1) & (M - 1);
+    }
+    return -1;
+  }
+
+  // place a key known not to be in the table, displacing richer entries on the way
+  private void insert(Key key, Value val) {
+    int i = hash(key);
+    int d = 0;
+    while(keys[i] != null){
+      if(dist[i] < d){
+        Key k = keys[i];
+        Value v = vals[i];
+        int t = dist[i];
+        keys[i] = key;
+        vals[i] = val;
+        dist[i] = d;
+        key = k;
+        val = v;
+        d = t;
+      }
+      i = (i + 1) & (M - 1);
+      d++;
+    }
+    keys[i] = key;
+    vals[i] = val;
+    dist[i] = d;
+  }
+
+  private void resize(int size) {
+    Key[] oldKeys = keys;
+    Value[] oldVals = vals;
+
+    M = size;
+    keys = (Key[]) new Object[M];
+    vals = (Value[]) new Object[M];
+    dist = new int[M];
+
+    for(int i = 0; i < oldKeys.length; i++){
+      if(oldKeys[i] != null)
+        insert(oldKeys[i], oldVals[i]);
+    }
+  }
+
+  private class Cursor implements MapCursor<Key,Value> {
+    private int i = -1; // slot of the current pair
+
+    @Override
+    public boolean advance() {
+      while(i < M - 1){
+        if(keys[++i] != null)
+          return true;
+      }
+      return false;
+    }
+
+    @Override
+    public Key key() {
+      return keys[i];
+    }
+
+    @Override
+    public Value value() {
+      return vals[i];
+    }
+  }
+
+}
@@ -1,10 +1,25 @@
 
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements OrderedSymbolTable<Key, Value> {
 
     private Node root;
+    private Node[] path = (Node[]) new SkelskeyBSTST.Node[32]; // nodes visited by put and delete, reused between calls
+    private double heightFactor; // put rebuilds part of the tree once a node is deeper than heightFactor * lg n; 0 is off
 
     private class Node {
 
@@ -35,32 +50,11 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
 
     @Override
     public Value get(Key key) {
-        return get(root, key);
-    }
-
-    
-    private Value get(Node x, Key key) {
-        // Return value associated with key in the subtree rooted at x;
-        // return null if key not present in subtree rooted at x.
-        if (x == null) {
-            return null;
-        }
-        int cmp = key.compareTo(x.key);
-        if (cmp < 0) {
-            return get(x.left, key);
-        } else if (cmp > 0) {
-            return get(x.right, key);
-        } else {
-            return x.val;
-        }
+        return getFast(key);
     }
 
     // nonrecursive get implementation
     private Value getFast(Key key) {
-        if (isEmpty()) {
-            return null;
-        }
-
         Node x = root;
         while (x != null) {
             int cmp = key.compareTo(x.key);
@@ -73,69 +67,74 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
             }
         } // while
 
-        return x.val;
+        return null;
     }
 
     @Override
     public void put(Key key, Value val) {
-        root = put(root, key, val);
+        putFast(key, val);
     }
 
-    private Node put(Node x, Key key, Value val) {
-        // Change key’s value to val if key in subtree rooted at x.
-        // Otherwise, add new node to subtree associating key with val.
-        if (x == null) {
-            return new Node(key, val, 1);
+    // nonrecursive put implementation: one walk down, remembering the path, and
+    // subtree counts are only raised once a new node has actually been added
+    private void putFast(Key key, Value val) {
+        Node x = root;
+        Node parent = null;
+        int cmp = 0;
+        int depth = 0;
+
+        while (x != null) {
+            cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                x.val = val;
+                return;
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * depth);
+            }
+            path[depth++] = x;
+            parent = x;
+            x = cmp < 0 ? x.left : x.right;
         }
-        int cmp = key.compareTo(x.key);
-        if (cmp < 0) {
-            x.left = put(x.left, key, val);
-        } else if (cmp > 0) {
-            x.right = put(x.right, key, val);
+
+        Node newNode = new Node(key, val, 1);
+        if (parent == null) {
+            root = newNode;
+        } else if (cmp < 0) {
+            parent.left = newNode;
         } else {
-            x.val = val;
+            parent.right = newNode;
         }
-        x.N = size(x.left) + size(x.right) + 1;
-        return x;
-    }
 
-    // nonrecursive put implementation
-    private void putFast(Key key, Value val) {
-        if (root == null) {
-            root = new Node(key, val, 1);
-        } else {
-            Node x = root;
-            Node parent = null;
+        for (int i = 0; i < depth; i++) {
+            path[i].N++;
+        }
+        if (heightFactor > 0 && depth > heightFactor * Math.log(size()) / Math.log(2)) {
+            rebuildScapegoat(newNode, depth);
+        }
+        Arrays.fill(path, 0, depth, null);
+    }
 
-            while (x != null) {
-                parent = x;
-                if (key.compareTo(x.key) < 0) {
-                    x = x.left;
-                } else if (key.compareTo(x.key) > 0) {
-                    x = x.right;
+    // newNode was added too deep: rebuild the subtree of the lowest ancestor whose
+    // heavier side is too large a share of it (a scapegoat), which always exists
+    // when the depth is over heightFactor * lg n
+    private void rebuildScapegoat(Node newNode, int depth) {
+        double alpha = Math.pow(2, -1 / heightFactor);
+        Node child = newNode;
+        for (int i = depth - 1; i >= 0; i--) {
+            Node x = path[i];
+            if (size(child) > alpha * x.N) {
+                Node rebuilt = rebuild(x);
+                if (i == 0) {
+                    root = rebuilt;
+                } else if (path[i - 1].left == x) {
+                    path[i - 1].left = rebuilt;
                 } else {
-                    x.val = val;
-                    return;
+                    path[i - 1].right = rebuilt;
                 }
+                return;
             }
-
-            x = root;
-            while (x != null) {
-                x.N = x.N + 1;
-                if (key.compareTo(x.key) < 0) {
-                    x = x.left;
-                } else if (key.compareTo(x.key) > 0) {
-                    x = x.right;
-                }
-            }
-
-            Node newNode = new Node(key, val, 1);
-            if (key.compareTo(parent.key) < 0) {
-                parent.left = newNode;
-            } else {
-                parent.right = newNode;
-            }
-
+            child = x;
         }
     }
 
@@ -145,10 +144,10 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
     }
 
     private Node min(Node x) {
-        if (x.left == null) {
-            return x;
+        while (x.left != null) {
+            x = x.left;
         }
-        return min(x.left);
+        return x;
     }
 
     @Override
@@ -157,10 +156,10 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
     }
 
     private Node max(Node x) {
-        if (x.right == null) {
-            return x;
+        while (x.right != null) {
+            x = x.right;
         }
-        return max(x.right);
+        return x;
     }
 
     @Override
@@ -173,41 +172,45 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
     }
 
     private Node floor(Node x, Key key) {
-        if (x == null) {
-            return null;
-        }
-        int cmp = key.compareTo(x.key);
-        if (cmp == 0) {
-            return x;
-        }
-        if (cmp < 0) {
-            return floor(x.left, key);
-        }
-        Node t = floor(x.right, key);
-        if (t != null) {
-            return t;
-        } else {
-            return x;
+        // largest node seen so far with a key below key
+        Node best = null;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x;
+            }
+            if (cmp < 0) {
+                x = x.left;
+            } else {
+                best = x;
+                x = x.right;
+            }
         }
+        return best;
     }
 
     @Override
     public Key select(int k) {
-        return select(root, k).key;
-    }
-
-    private Node select(Node x, int k) {
+        Node x = select(root, k);
         if (x == null) {
             return null;
         }
-        int t = size(x.left);
-        if (t > k) {
-            return select(x.left, k);
-        } else if (t < k) {
-            return select(x.right, k - t - 1);
-        } else {
-            return x;
+        return x.key;
+    }
+
+    private Node select(Node x, int k) {
+        while (x != null) {
+            int t = size(x.left);
+            if (t > k) {
+                x = x.left;
+            } else if (t < k) {
+                k -= t + 1;
+                x = x.right;
+            } else {
+                return x;
+            }
         }
+        return null;
     }
 
     @Override
@@ -216,91 +219,132 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
     }
 
     private int rank(Key key, Node x) {
-        // Return number of keys less than x.key in the subtree rooted at x.
-        if (x == null) {
-            return 0;
-        }
-        int cmp = key.compareTo(x.key);
-        if (cmp < 0) {
-            return rank(key, x.left);
-        } else if (cmp > 0) {
-            return 1 + size(x.left) + rank(key, x.right);
-        } else {
-            return size(x.left);
+        // Return number of keys less than key in the subtree rooted at x.
+        int r = 0;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp < 0) {
+                x = x.left;
+            } else if (cmp > 0) {
+                r += 1 + size(x.left);
+                x = x.right;
+            } else {
+                return r + size(x.left);
+            }
         }
+        return r;
     }
 
     @Override
     public void deleteMin() {
-        root = deleteMin(root);
-    }
-
-    private Node deleteMin(Node x) {
-        if (x.left == null) {
-            return x.right;
+        if (root == null) {
+            return;
         }
-        x.left = deleteMin(x.left);
-        x.N = size(x.left) + size(x.right) + 1;
-        return x;
+        if (root.left == null) {
+            root = root.right;
+            return;
+        }
+        Node x = root;
+        while (x.left.left != null) {
+            x.N--;
+            x = x.left;
+        }
+        x.N--;
+        x.left = x.left.right;
     }
 
     @Override
     public void delete(Key key) {
-        root = delete(root, key);
-    }
+        Node x = root;
+        Node parent = null;
+        int depth = 0;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                break;
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * depth);
+            }
+            path[depth++] = x;
+            parent = x;
+            x = cmp < 0 ? x.left : x.right;
+        }
 
-    private Node delete(Node x, Key key) {
+        // every node on the path loses one descendant, but only if key was found
+        while (depth > 0) {
+            if (x != null) {
+                path[depth - 1].N--;
+            }
+            path[--depth] = null;
+        }
         if (x == null) {
-            return null;
+            return;
         }
-        int cmp = key.compareTo(x.key);
-        if (cmp < 0) {
-            x.left = delete(x.left, key);
-        } else if (cmp > 0) {
-            x.right = delete(x.right, key);
+
+        Node replacement;
+        if (x.right == null) {
+            replacement = x.left;
+        } else if (x.left == null) {
+            replacement = x.right;
         } else {
-            if (x.right == null) {
-                return x.left;
+            // take the successor out of the right subtree and put it in x's place
+            Node t = x.right;
+            Node tParent = x;
+            while (t.left != null) {
+                t.N--;
+                tParent = t;
+                t = t.left;
             }
-            if (x.left == null) {
-                return x.right;
+            if (tParent != x) {
+                tParent.left = t.right;
+                t.right = x.right;
             }
-            Node t = x;
-            x = min(t.right);
-            x.right = deleteMin(t.right);
-            x.left = t.left;
+            t.left = x.left;
+            t.N = x.N - 1;
+            replacement = t;
+        }
+
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == x) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
         }
-        x.N = size(x.left) + size(x.right) + 1;
-        return x;
     }
 
     @Override
     public Iterable<Key> keys() {
-        return keys(min(), max());
+        return () -> new RangeIterator<>(null, null, false, x -> x.key);
     }
 
+    // keys in [lo..hi] in sorted order, found lazily as the iterator advances
     @Override
     public Iterable<Key> keys(Key lo, Key hi) {
-        Queue<Key> queue = new LinkedList<>();
-        keys(root, queue, lo, hi);
-        return queue;
+        return () -> new RangeIterator<>(lo, hi, false, x -> x.key);
     }
 
-    private void keys(Node x, Queue<Key> queue, Key lo, Key hi) {
-        if (x == null) {
-            return;
-        }
-        int cmplo = lo.compareTo(x.key);
-        int cmphi = hi.compareTo(x.key);
-        if (cmplo < 0) {
-            keys(x.left, queue, lo, hi);
-        }
-        if (cmplo <= 0 && cmphi >= 0) {
-            queue.add(x.key);
-        }
-        if (cmphi > 0) {
-            keys(x.right, queue, lo, hi);
-        }
+    // keys in [lo..hi] from hi down to lo
+    public Iterable<Key> descendingKeys(Key lo, Key hi) {
+        return () -> new RangeIterator<>(lo, hi, true, x -> x.key);
+    }
+
+    // key-value pairs with keys in [lo..hi] in sorted order
+    public Iterable<Map.Entry<Key, Value>> entries(Key lo, Key hi) {
+        return () -> new RangeIterator<>(lo, hi, false, x -> new AbstractMap.SimpleImmutableEntry<>(x.key, x.val));
+    }
+
+    // key-value pairs with keys in [lo..hi] from hi down to lo
+    public Iterable<Map.Entry<Key, Value>> descendingEntries(Key lo, Key hi) {
+        return () -> new RangeIterator<>(lo, hi, true, x -> new AbstractMap.SimpleImmutableEntry<>(x.key, x.val));
+    }
+
+    // spliterator over the pairs in key order; it splits by rank, so every part
+    // knows exactly how many pairs it holds
+    @Override
+    public Spliterator<Map.Entry<Key, Value>> spliterator() {
+        return new RankSpliterator(0, size());
     }
 
     @Override
@@ -324,37 +368,40 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
     }
 
     private Node ceiling(Node x, Key key) {
-        if (x == null) {
-            return null;
-        }
-        int cmp = key.compareTo(x.key);
-        if (cmp == 0) {
-            return x;
-        }
-        if (cmp < 0) {
-            return ceiling(x.right, key); // changed left to right
-        }
-        Node t = ceiling(x.left, key); // changed right to left
-        if (t != null) {
-            return t;
-        } else {
-            return x;
+        // smallest node seen so far with a key above key
+        Node best = null;
+        while (x != null) {
+            int cmp = key.compareTo(x.key);
+            if (cmp == 0) {
+                return x;
+            }
+            if (cmp > 0) {
+                x = x.right;
+            } else {
+                best = x;
+                x = x.left;
+            }
         }
+        return best;
     }
 
     @Override
     // deleteMin() from lecture copied and reversed.
     public void deleteMax() {
-        root = deleteMax(root);
-    }
-
-    private Node deleteMax(Node x) {
-        if (x.right == null) {
-            return x.left;
+        if (root == null) {
+            return;
         }
-        x.right = deleteMax(x.right);
-        x.N = size(x.left) + size(x.right) + 1;
-        return x;
+        if (root.right == null) {
+            root = root.left;
+            return;
+        }
+        Node x = root;
+        while (x.right.right != null) {
+            x.N--;
+            x = x.right;
+        }
+        x.N--;
+        x.right = x.right.left;
     }
 
     @Override
@@ -371,52 +418,272 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
     }
 
     
+    // rebalance the whole tree in O(n) time and O(1) extra space
     public void balance() {
-        LinkedList<Node> nodes = new LinkedList<Node>();
-        orderFill(root, nodes);
+        root = rebuild(root);
+    }
+
+    // rebalance automatically: whenever put adds a node deeper than factor * lg n,
+    // rebuild the smallest subtree that brings it back up (as a scapegoat tree does);
+    // factor 0 turns it off
+    public void setAutoBalance(double factor) {
+        if (factor != 0 && factor <= 1) {
+            throw new IllegalArgumentException("height factor must be greater than 1");
+        }
+        heightFactor = factor;
+    }
 
-        int n = nodes.size();
-        root = balance(nodes, 0, n - 1);
-        updateSize(root);
+    // Day-Stout-Warren: rotate the subtree at x into a vine (a linked list down the
+    // right links) and then into a complete tree by repeated left rotations
+    // down the vine; subtree counts are kept right at every rotation
+    private Node rebuild(Node x) {
+        Node pseudoRoot = new Node(null, null, 0);
+        pseudoRoot.right = x;
+        return vineToTree(pseudoRoot, treeToVine(pseudoRoot));
     }
 
-    public Node balance(LinkedList<Node> nodes, int start, int stop) {
-        if (start > stop) {
-            return null;
+    // turn the vine of n nodes below pseudoRoot into a complete tree and return its root
+    private Node vineToTree(Node pseudoRoot, int n) {
+        int k = n;
+        for (Node x = pseudoRoot.right; x != null; x = x.right) {
+            x.N = k--;
+        }
+
+        int full = Integer.highestOneBit(n + 1) - 1; // nodes in the largest complete tree that fits
+        compress(pseudoRoot, n - full);
+        for (int m = full / 2; m > 0; m /= 2) {
+            compress(pseudoRoot, m);
         }
+        return pseudoRoot.right;
+    }
 
-        int mid = (start + stop) / 2;
-        if ((start + stop) % 2 == 1) {
-            mid++;
+    // straighten the tree below pseudoRoot into a vine; returns its length
+    private int treeToVine(Node pseudoRoot) {
+        Node tail = pseudoRoot;
+        Node rest = tail.right;
+        int n = 0;
+        while (rest != null) {
+            if (rest.left == null) {
+                tail = rest;
+                rest = rest.right;
+                n++;
+            } else {
+                Node t = rest.left;
+                rest.left = t.right;
+                t.right = rest;
+                rest = t;
+                tail.right = t;
+            }
         }
+        return n;
+    }
 
-        Node midNode = nodes.get(mid);
+    // left-rotate every second node of the top 2 * count nodes of the vine
+    private void compress(Node pseudoRoot, int count) {
+        Node scanner = pseudoRoot;
+        for (int i = 0; i < count; i++) {
+            Node child = scanner.right;
+            scanner.right = child.right;
+            scanner = scanner.right;
+            child.right = scanner.left;
+            scanner.left = child;
+            scanner.N = child.N;
+            child.N = size(child.left) + size(child.right) + 1;
+        }
+    }
 
-        midNode.left = balance(nodes, start, mid - 1);
-        midNode.right = balance(nodes, mid + 1, stop);
+    // table holding keys[i] -> vals[i], built as a complete tree in O(n); keys must be
+    // in strictly ascending order
+    public static <Key extends Comparable<Key>, Value> SkelskeyBSTST<Key, Value> fromSorted(Key[] keys, Value[] vals) {
+        SkelskeyBSTST<Key, Value> st = new SkelskeyBSTST<>();
+        st.merge(keys, vals);
+        return st;
+    }
 
-        return midNode;
+    // table holding the pairs of sorted, built as a complete tree in O(n); keys must be
+    // in strictly ascending order
+    public static <Key extends Comparable<Key>, Value> SkelskeyBSTST<Key, Value> fromSorted(
+            Iterator<? extends Map.Entry<? extends Key, ? extends Value>> sorted) {
+        SkelskeyBSTST<Key, Value> st = new SkelskeyBSTST<>();
+        st.merge(sorted);
+        return st;
     }
 
-    public void orderFill(Node x, LinkedList<Node> nodes) {
-        if (x == null) {
+    // put keys[i] -> vals[i] for every i, later pairs winning over earlier ones with the
+    // same key; a batch that is large next to the tree is sorted and merged in, so
+    // loading sorted data (a snapshot, say) does not build a chain one node at a time.
+    // A null anywhere in the batch is rejected before anything is put, whatever its size
+    @Override
+    public void putAll(Key[] keys, Value[] vals) {
+        if (keys.length != vals.length) {
+            throw new IllegalArgumentException("keys and vals must have the same length");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || vals[i] == null) {
+                throw new IllegalArgumentException("value or key cannot be null");
+            }
+        }
+
+        if (keys.length < size() / 16) {
+            for (int i = 0; i < keys.length; i++) {
+                put(keys[i], vals[i]);
+            }
             return;
         }
-        orderFill(x.left, nodes);
-        nodes.add(x);
-        
-        orderFill(x.right, nodes);
+
+        Map.Entry<Key, Value>[] batch = (Map.Entry<Key, Value>[]) new Map.Entry[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            batch[i] = new AbstractMap.SimpleImmutableEntry<>(keys[i], vals[i]);
+        }
+        mergeBatch(batch);
     }
 
-    
-    public void updateSize(Node x) {
-        if (x == null) {
+    // put every pair of pairs, as putAll(Key[], Value[]) does
+    @Override
+    public void putAll(Collection<? extends Map.Entry<? extends Key, ? extends Value>> pairs) {
+        for (Map.Entry<? extends Key, ? extends Value> pair : pairs) {
+            if (pair.getKey() == null || pair.getValue() == null) {
+                throw new IllegalArgumentException("value or key cannot be null");
+            }
+        }
+
+        if (pairs.size() < size() / 16) {
+            for (Map.Entry<? extends Key, ? extends Value> pair : pairs) {
+                put(pair.getKey(), pair.getValue());
+            }
             return;
         }
+        mergeBatch(pairs.toArray((Map.Entry<Key, Value>[]) new Map.Entry[pairs.size()]));
+    }
+
+    // sort batch, keep the last pair of each key, and merge what is left into the tree
+    private void mergeBatch(Map.Entry<Key, Value>[] batch) {
+        // a stable sort keeps equal keys in batch order, so the last of each run wins
+        Arrays.sort(batch, Map.Entry.comparingByKey());
+        int m = 0;
+        for (int i = 0; i < batch.length; i++) {
+            if (m > 0 && batch[m - 1].getKey().compareTo(batch[i].getKey()) == 0) {
+                batch[m - 1] = batch[i];
+            } else {
+                batch[m++] = batch[i];
+            }
+        }
+        merge(Arrays.asList(batch).subList(0, m).iterator());
+    }
+
+    // put keys[i] -> vals[i] for every i, as merge(Iterator) does
+    public void merge(Key[] keys, Value[] vals) {
+        if (keys.length != vals.length) {
+            throw new IllegalArgumentException("keys and values differ in length");
+        }
+        merge(IntStream.range(0, keys.length)
+                .mapToObj(i -> new AbstractMap.SimpleImmutableEntry<>(keys[i], vals[i]))
+                .iterator());
+    }
+
+    // put every pair of sorted, whose keys must be in strictly ascending order, in
+    // O(n + m): the tree's nodes and the new pairs are merged in key order into one
+    // vine, which is then compressed into a complete tree. If a key is out of order
+    // the pairs before it are kept and IllegalArgumentException is thrown; if sorted
+    // or a key throws, the pairs before that point are kept and the exception passes on.
+    public void merge(Iterator<? extends Map.Entry<? extends Key, ? extends Value>> sorted) {
+        Node pseudoRoot = new Node(null, null, 0);
+        Node tail = pseudoRoot;
+        int n = 0;
+
+        Deque<Node> stack = new ArrayDeque<>(); // in-order walk of the old tree
+        Node x = root;
+        Key pendingKey = null; // next new pair, or null once it has been appended
+        Value pendingVal = null;
+        Key lastKey = null;
+
+        try {
+            while (true) {
+                if (pendingKey == null && sorted.hasNext()) {
+                    Map.Entry<? extends Key, ? extends Value> e = sorted.next();
+                    Key key = e.getKey();
+                    Value val = e.getValue();
+                    if (key == null || val == null) {
+                        throw new IllegalArgumentException("value or key cannot be null");
+                    }
+                    if (lastKey != null && lastKey.compareTo(key) >= 0) {
+                        throw new IllegalArgumentException("keys are not in strictly ascending order");
+                    }
+                    lastKey = key;
+                    pendingKey = key;
+                    pendingVal = val;
+                }
+                while (x != null) {
+                    stack.push(x);
+                    x = x.left;
+                }
+                Node old = stack.peek();
+                if (old == null && pendingKey == null) {
+                    break;
+                }
+
+                // append whichever key comes first; an old node with a new pair's key
+                // takes the new value
+                int cmp = old == null ? -1 : pendingKey == null ? 1 : pendingKey.compareTo(old.key);
+                Node y;
+                if (cmp >= 0) {
+                    stack.pop();
+                    x = old.right;
+                    y = old;
+                    if (cmp == 0) {
+                        old.val = pendingVal;
+                        pendingKey = null;
+                    }
+                } else {
+                    y = new Node(pendingKey, pendingVal, 1);
+                    pendingKey = null;
+                }
+                y.left = null;
+                y.right = null;
+                tail.right = y;
+                tail = y;
+                n++;
+            }
+        } finally {
+            // if the loop stopped early, the rest of the old tree still has to join
+            // the vine; nothing below can throw, so the tree is always left whole
+            while (x != null || !stack.isEmpty()) {
+                while (x != null) {
+                    stack.push(x);
+                    x = x.left;
+                }
+                Node y = stack.pop();
+                x = y.right;
+                y.left = null;
+                y.right = null;
+                tail.right = y;
+                tail = y;
+                n++;
+            }
+            root = vineToTree(pseudoRoot, n);
+        }
+    }
 
-        x.N = size(x);
-        updateSize(x.left);
-        updateSize(x.right);
+    // number of nodes on the longest path from the root
+    public int height() {
+        int height = 0;
+        Queue<Node> level = new ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                Node x = level.poll();
+                if (x.left != null) {
+                    level.add(x.left);
+                }
+                if (x.right != null) {
+                    level.add(x.right);
+                }
+            }
+        }
+        return height;
     }
 
     public void printLevel(Key key) {
@@ -453,4 +720,154 @@ public class SkelskeyBSTST<Key extends Comparable<Key>, Value> implements Ordere
 
     }
 
+    // in-order walk over the nodes with keys in [lo..hi] (a null bound is open),
+    // ascending or descending. The stack holds the nodes whose key is still to be
+    // returned on the way from the root to the next one, so the first call costs the
+    // height of the tree and every later one is O(1) amortized. The tree must not be
+    // modified while the iterator is in use.
+    private class RangeIterator<T> implements Iterator<T> {
+        private final Key lo, hi;
+        private final boolean descending;
+        private final Function<Node, T> result;
+        private final Deque<Node> stack = new ArrayDeque<>();
+
+        RangeIterator(Key lo, Key hi, boolean descending, Function<Node, T> result) {
+            this.lo = lo;
+            this.hi = hi;
+            this.descending = descending;
+            this.result = result;
+            pushFrom(root);
+        }
+
+        // push the path from x towards the first key in range, skipping subtrees
+        // that lie wholly before it
+        private void pushFrom(Node x) {
+            Key start = descending ? hi : lo;
+            while (x != null) {
+                int cmp = start == null ? (descending ? 1 : -1) : start.compareTo(x.key);
+                if (cmp == 0) {
+                    stack.push(x);
+                    return;
+                }
+                if ((cmp < 0) != descending) {
+                    stack.push(x);
+                    x = descending ? x.right : x.left;
+                } else {
+                    x = descending ? x.left : x.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (stack.isEmpty()) {
+                return false;
+            }
+            Key end = descending ? lo : hi;
+            if (end == null) {
+                return true;
+            }
+            int cmp = end.compareTo(stack.peek().key);
+            return descending ? cmp <= 0 : cmp >= 0;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node x = stack.pop();
+            pushFrom(descending ? x.left : x.right);
+            return result.apply(x);
+        }
+    }
+
+    private class RankSpliterator implements Spliterator<Map.Entry<Key, Value>> {
+        private int lo; // rank of the next pair
+        private final int hi; // one past the rank of the last pair
+        private Deque<Node> path; // nodes still to visit on the way down to rank lo, built on first use
+
+        RankSpliterator(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Key, Value>> action) {
+            if (lo >= hi) {
+                return false;
+            }
+            Node x = next();
+            action.accept(new AbstractMap.SimpleImmutableEntry<>(x.key, x.val));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<Key, Value>> action) {
+            while (lo < hi) {
+                Node x = next();
+                action.accept(new AbstractMap.SimpleImmutableEntry<>(x.key, x.val));
+            }
+        }
+
+        // node of rank lo, in-order successor of the previous one
+        private Node next() {
+            if (path == null) {
+                path = new ArrayDeque<>();
+                Node x = root;
+                int k = lo;
+                while (x != null) {
+                    int t = size(x.left);
+                    if (k < t) {
+                        path.push(x);
+                        x = x.left;
+                    } else if (k > t) {
+                        k -= t + 1;
+                        x = x.right;
+                    } else {
+                        path.push(x);
+                        break;
+                    }
+                }
+            }
+
+            Node x = path.pop();
+            for (Node y = x.right; y != null; y = y.left) {
+                path.push(y);
+            }
+            lo++;
+            return x;
+        }
+
+        // hand the lower half of the remaining ranks to a new spliterator
+        @Override
+        public Spliterator<Map.Entry<Key, Value>> trySplit() {
+            int mid = (lo + hi) >>> 1;
+            if (mid <= lo) {
+                return null;
+            }
+
+            RankSpliterator prefix = new RankSpliterator(lo, mid);
+            lo = mid;
+            path = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL
+                    | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+
+        @Override
+        public Comparator<? super Map.Entry<Key, Value>> getComparator() {
+            return Map.Entry.comparingByKey();
+        }
+    }
+
 }
@@ -0,0 +1,339 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * StripedLinearProbingHT class
+ * Defined as: a set of independent linear probing tables (segments), with the top bits
+ * of a key's hash choosing its segment. Writers lock only their segment, so threads
+ * writing to different segments never wait on each other, and readers take no lock
+ * at all. Entries are never moved while a segment is in use: delete just clears the
+ * value, and a segment is rebuilt into a new array (published in one volatile write)
+ * once live and deleted entries fill half of it. size() is kept in a LongAdder.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class StripedLinearProbingHT<Key, Value> implements ConcurrentSymbolTable<Key, Value> {
+
+  private static final int DEFAULT_SEGMENTS = 16;
+  private static final int SEGMENT_SIZE = 16; // slots in a new segment
+  private static final double MAX_LOAD = 0.5;
+
+  // Member variables
+  private final Segment[] segments;
+  private final int shift; // 32 - log2(segments.length), keeps the top bits of the hash
+  private final LongAdder N = new LongAdder(); // number of key-value pairs
+  private final HashStrategy<? super Key> hasher;
+
+  StripedLinearProbingHT() {
+    this(DEFAULT_SEGMENTS);
+  }
+
+  StripedLinearProbingHT(int segments){
+    this(segments, HashStrategy.murmur3());
+  }
+
+  StripedLinearProbingHT(int segments, HashStrategy<? super Key> hasher){
+    if (segments < 1)
+      throw new IllegalArgumentException("segments must be positive");
+
+    int S = Integer.highestOneBit(Math.max(2, segments) * 2 - 1); // round up to a power of two
+    this.hasher = hasher;
+    this.shift = Integer.numberOfLeadingZeros(S) + 1;
+    this.segments = (Segment[]) new StripedLinearProbingHT.Segment[S];
+    for(int s = 0; s < S; s++)
+      this.segments[s] = new Segment(SEGMENT_SIZE);
+  }
+
+  public int hash(Key key){
+    return (int) hasher.hash(key);
+  }
+
+  private Segment segmentFor(int h){
+    return segments[h >>> shift];
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int h = hash(key);
+    segmentFor(h).put(key, h, val, false);
+  }
+
+  // get value paired with key, without locking
+  @Override
+  public Value get(Key key) {
+    int h = hash(key);
+    Entry<Key,Value> entry = segmentFor(h).find(key, h);
+    return entry == null ? null : entry.value;
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    int h = hash(key);
+    segmentFor(h).remove(key, h);
+  }
+
+  @Override
+  public Value putIfAbsent(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int h = hash(key);
+    return segmentFor(h).put(key, h, val, true);
+  }
+
+  @Override
+  public Value computeIfAbsent(Key key, Function<? super Key, ? extends Value> fn) {
+    Value val = get(key);
+    if(val != null)
+      return val;
+
+    int h = hash(key);
+    return segmentFor(h).computeIfAbsent(key, h, fn);
+  }
+
+  @Override
+  public Value merge(Key key, Value val, BiFunction<? super Value, ? super Value, ? extends Value> fn) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int h = hash(key);
+    return segmentFor(h).merge(key, h, val, fn);
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return get(key) != null;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N.sum() == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N.intValue();
+  }
+
+  // all keys in the table; keys added or deleted while they are iterated may or may not appear
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over the pairs, one segment after another, without locking; pairs added or
+  // deleted while it runs may or may not be visited
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new MapCursor<Key,Value>() {
+      private int s; // segment being visited
+      private AtomicReferenceArray<Entry<Key,Value>> table = segments[0].table;
+      private int i = -1; // slot of the current pair in table
+      private Key key;
+      private Value val;
+
+      @Override
+      public boolean advance() {
+        while(true){
+          while(i < table.length() - 1){
+            Entry<Key,Value> entry = table.get(++i);
+            Value v = entry == null ? null : entry.value;
+            if(v != null){
+              key = entry.key;
+              val = v;
+              return true;
+            }
+          }
+          if(s == segments.length - 1)
+            return false;
+          table = segments[++s].table;
+          i = -1;
+        }
+      }
+
+      @Override
+      public Key key() {
+        return key;
+      }
+
+      @Override
+      public Value value() {
+        return val;
+      }
+    };
+  }
+
+  private class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock(); // guards every write to this segment
+    private volatile AtomicReferenceArray<Entry<Key,Value>> table;
+    private int used; // non-null slots, guarded by the lock
+    private int deleted; // entries whose value was cleared, guarded by the lock
+
+    Segment(int size){
+      table = new AtomicReferenceArray<>(size);
+    }
+
+    // entry for key, live or deleted, or null
+    Entry<Key,Value> find(Key key, int h){
+      AtomicReferenceArray<Entry<Key,Value>> t = table;
+      int mask = t.length() - 1;
+      for(int i = h & mask; ; i = (i + 1) & mask){
+        Entry<Key,Value> entry = t.get(i);
+        if(entry == null || (entry.hash == h && entry.key.equals(key)))
+          return entry;
+      }
+    }
+
+    // returns the value key had before, or null
+    Value put(Key key, int h, Value val, boolean onlyIfAbsent){
+      lock.lock();
+      try {
+        Entry<Key,Value> entry = find(key, h);
+        if(entry == null){
+          add(new Entry<>(h, key, val));
+          return null;
+        }
+        Value old = entry.value;
+        if(old == null)
+          revive(entry, val);
+        else if(!onlyIfAbsent)
+          entry.value = val;
+        return old;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void remove(Key key, int h){
+      lock.lock();
+      try {
+        Entry<Key,Value> entry = find(key, h);
+        if(entry != null && entry.value != null)
+          kill(entry);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    Value computeIfAbsent(Key key, int h, Function<? super Key, ? extends Value> fn){
+      lock.lock();
+      try {
+        Entry<Key,Value> entry = find(key, h);
+        if(entry != null && entry.value != null)
+          return entry.value;
+
+        Value val = fn.apply(key);
+        if(val != null){
+          if(entry == null)
+            add(new Entry<>(h, key, val));
+          else
+            revive(entry, val);
+        }
+        return val;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    Value merge(Key key, int h, Value val, BiFunction<? super Value, ? super Value, ? extends Value> fn){
+      lock.lock();
+      try {
+        Entry<Key,Value> entry = find(key, h);
+        if(entry == null){
+          add(new Entry<>(h, key, val));
+          return val;
+        }
+        if(entry.value == null){
+          revive(entry, val);
+          return val;
+        }
+
+        Value merged = fn.apply(entry.value, val);
+        if(merged == null)
+          kill(entry);
+        else
+          entry.value = merged;
+        return merged;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void revive(Entry<Key,Value> entry, Value val){
+      entry.value = val;
+      deleted--;
+      N.increment();
+    }
+
+    private void kill(Entry<Key,Value> entry){
+      entry.value = null;
+      deleted++;
+      N.decrement();
+    }
+
+    // store a new entry, rebuilding first if the segment would pass MAX_LOAD
+    private void add(Entry<Key,Value> entry){
+      if(used + 1 > MAX_LOAD * table.length())
+        rebuild();
+      insert(table, entry);
+      used++;
+      N.increment();
+    }
+
+    // copy the live entries into a new array sized to a quarter full, then publish it
+    private void rebuild(){
+      int live = used - deleted;
+      int size = SEGMENT_SIZE;
+      while(4 * (live + 1) > size)
+        size *= 2;
+
+      AtomicReferenceArray<Entry<Key,Value>> old = table;
+      AtomicReferenceArray<Entry<Key,Value>> t = new AtomicReferenceArray<>(size);
+      for(int i = 0; i < old.length(); i++){
+        Entry<Key,Value> entry = old.get(i);
+        if(entry != null && entry.value != null)
+          insert(t, entry);
+      }
+
+      used = live;
+      deleted = 0;
+      table = t;
+    }
+
+    private void insert(AtomicReferenceArray<Entry<Key,Value>> t, Entry<Key,Value> entry){
+      int mask = t.length() - 1;
+      int i = entry.hash & mask;
+      while(t.get(i) != null)
+        i = (i + 1) & mask;
+      t.set(i, entry);
+    }
+  }
+
+  private static class Entry<Key, Value>{
+    private final int hash;
+    private final Key key;
+    private volatile Value value; // null once deleted
+
+    Entry(int hash, Key key, Value value){
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+}
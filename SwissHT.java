@@ -0,0 +1,242 @@
+import java.util.Arrays;
+
+/**
+ * SwissHT class
+ * Defined as: open addressing over groups of eight slots, with one control byte per slot
+ * kept apart from the keys. A control byte says whether its slot is empty, deleted, or
+ * full, and for a full slot holds 7 bits of the key's hash. The eight control bytes of a
+ * group are packed into one long, so a probe compares all of them against the hash bits at
+ * once (SWAR: byte-wise arithmetic on a long) and only calls equals() on the few slots that
+ * match, which almost always means just the right one. Groups are visited in triangular
+ * order, and a probe stops at the first group that still has an empty slot.
+ * @author Ian Skelskey
+ * @version 1.0
+ * @param <Key>
+ * @param <Value>
+*/
+
+public class SwissHT<Key, Value> implements SymbolTable<Key, Value> {
+
+  private static final int DEFAULT_SIZE = 128; // groups
+  private static final int GROUP = 8; // slots per group, one per byte of a long
+  private static final double MAX_LOAD = 0.875;
+
+  // control bytes: 0x80 empty, 0xFE deleted, 0x00 to 0x7F full with those 7 hash bits
+  private static final long EMPTY = 0x80;
+  private static final long DELETED = 0xFE;
+  private static final long LSBS = 0x0101010101010101L;
+  private static final long MSBS = 0x8080808080808080L;
+
+  // Member variables
+  private int G; // number of groups, always a power of two
+  private int N; // number of key-value pairs
+  private int deleted; // slots marked DELETED
+  private final int minSize;
+  private final HashStrategy<? super Key> hasher;
+
+  private long[] ctrl; // control bytes of group g, slot j is byte j of ctrl[g]
+  private Object[] keys;
+  private Object[] vals;
+
+  SwissHT() {
+    this(DEFAULT_SIZE);
+  }
+
+  SwissHT(int groups){
+    this(groups, HashStrategy.murmur3());
+  }
+
+  SwissHT(int groups, HashStrategy<? super Key> hasher){
+    if (groups < 1)
+      throw new IllegalArgumentException("size must be positive");
+
+    this.hasher = hasher;
+    this.minSize = Integer.highestOneBit(Math.max(2, groups) * 2 - 1); // round up to a power of two
+    allocate(minSize);
+  }
+
+  public int hash(Key key){
+    return (int) hasher.hash(key);
+  }
+
+  // put key-value pair into the table
+  @Override
+  public void put(Key key, Value val) {
+    if (val == null || key == null)
+      throw new IllegalArgumentException("value or key cannot be null");
+
+    int h = hash(key);
+    int i = indexOf(key, h);
+    if(i >= 0){
+      vals[i] = val;
+      return;
+    }
+
+    if(N + deleted + 1 > MAX_LOAD * GROUP * G)
+      rehash(N + 1 > MAX_LOAD * GROUP * G / 2 ? 2 * G : G); // grow, or just clear out deleted slots
+
+    insert(key, val, h);
+    N++;
+  }
+
+  // get value paired with key
+  @Override
+  public Value get(Key key) {
+    int i = indexOf(key, hash(key));
+    return i >= 0 ? (Value) vals[i] : null;
+  }
+
+  // remove key (and its value) from table
+  @Override
+  public void delete(Key key) {
+    int i = indexOf(key, hash(key));
+    if(i < 0)
+      return;
+
+    keys[i] = null;
+    vals[i] = null;
+    N--;
+
+    // a group that has never been full was never probed past, so the slot can go back to empty
+    int g = i / GROUP;
+    if(matchEmpty(ctrl[g]) != 0){
+      setCtrl(i, EMPTY);
+    } else {
+      setCtrl(i, DELETED);
+      deleted++;
+    }
+
+    if(G > minSize && N < GROUP * G / 8)
+      rehash(G / 2);
+  }
+
+  // is there a value paired with key?
+  @Override
+  public boolean contains(Key key) {
+    return indexOf(key, hash(key)) >= 0;
+  }
+
+  // is the table empty?
+  @Override
+  public boolean isEmpty() {
+    return N == 0;
+  }
+
+  // number of key-value pairs
+  @Override
+  public int size() {
+    return N;
+  }
+
+  // all keys in the table, read from the slot array as they are iterated
+  @Override
+  public Iterable<Key> keys() {
+    return () -> cursor().keyIterator();
+  }
+
+  // cursor over every key-value pair
+  @Override
+  public MapCursor<Key,Value> cursor() {
+    return new Cursor();
+  }
+
+  // slot holding key (whose hash is h), or -1
+  private int indexOf(Key key, int h) {
+    long h2 = h & 0x7F;
+    int g = (h >>> 7) & (G - 1);
+    for(int step = 1; ; g = (g + step++) & (G - 1)){
+      long group = ctrl[g];
+      // bytes equal to h2; a rare false match is always another full slot, weeded out by equals
+      for(long m = matchByte(group, h2); m != 0; m &= m - 1){
+        int i = g * GROUP + (Long.numberOfTrailingZeros(m) >>> 3);
+        if(keys[i].equals(key))
+          return i;
+      }
+      if(matchEmpty(group) != 0)
+        return -1;
+    }
+  }
+
+  // store a key known not to be in the table in the first empty or deleted slot on its path
+  private void insert(Object key, Object val, int h) {
+    int g = (h >>> 7) & (G - 1);
+    long m;
+    for(int step = 1; (m = matchEmptyOrDeleted(ctrl[g])) == 0; g = (g + step++) & (G - 1));
+
+    int i = g * GROUP + (Long.numberOfTrailingZeros(m) >>> 3);
+    if(ctrlAt(i) == DELETED)
+      deleted--;
+    setCtrl(i, h & 0x7F);
+    keys[i] = key;
+    vals[i] = val;
+  }
+
+  // high bit set in each byte of group equal to b (plus possibly a byte just above a real match)
+  private static long matchByte(long group, long b) {
+    long x = group ^ (LSBS * b);
+    return (x - LSBS) & ~x & MSBS;
+  }
+
+  // high bit set in each EMPTY byte: top bit set and bit 1 clear
+  private static long matchEmpty(long group) {
+    return group & ~(group << 6) & MSBS;
+  }
+
+  // high bit set in each EMPTY or DELETED byte: top bit set and bit 0 clear
+  private static long matchEmptyOrDeleted(long group) {
+    return group & ~(group << 7) & MSBS;
+  }
+
+  private long ctrlAt(int i) {
+    return (ctrl[i / GROUP] >>> (8 * (i % GROUP))) & 0xFF;
+  }
+
+  private void setCtrl(int i, long b) {
+    int shift = 8 * (i % GROUP);
+    ctrl[i / GROUP] = (ctrl[i / GROUP] & ~(0xFFL << shift)) | (b << shift);
+  }
+
+  private void allocate(int groups) {
+    G = groups;
+    deleted = 0;
+    ctrl = new long[G];
+    Arrays.fill(ctrl, EMPTY * LSBS);
+    keys = new Object[GROUP * G];
+    vals = new Object[GROUP * G];
+  }
+
+  private void rehash(int groups) {
+    Object[] oldKeys = keys;
+    Object[] oldVals = vals;
+
+    allocate(groups);
+    for(int i = 0; i < oldKeys.length; i++){
+      if(oldKeys[i] != null)
+        insert(oldKeys[i], oldVals[i], hash((Key) oldKeys[i]));
+    }
+  }
+
+  private class Cursor implements MapCursor<Key,Value> {
+    private int i = -1; // slot of the current pair
+
+    @Override
+    public boolean advance() {
+      while(i < keys.length - 1){
+        if(keys[++i] != null)
+          return true;
+      }
+      return false;
+    }
+
+    @Override
+    public Key key() {
+      return (Key) keys[i];
+    }
+
+    @Override
+    public Value value() {
+      return (Value) vals[i];
+    }
+  }
+
+}
@@ -1,3 +1,20 @@
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Symbol table interface.
  * 
@@ -26,4 +43,132 @@ public interface SymbolTable<Key, Value> {
     
     //all keys in the table
     Iterable<Key> keys();
+
+    //cursor over every key-value pair in the table
+    default MapCursor<Key, Value> cursor() {
+        Iterator<Key> keys = keys().iterator();
+        return new MapCursor<Key, Value>() {
+            private Key key;
+            private Value val;
+
+            @Override
+            public boolean advance() {
+                while (keys.hasNext()) {
+                    key = keys.next();
+                    val = get(key);
+                    if (val != null) // skip keys deleted since keys() was taken
+                        return true;
+                }
+                return false;
+            }
+
+            @Override
+            public Key key() {
+                return key;
+            }
+
+            @Override
+            public Value value() {
+                return val;
+            }
+        };
+    }
+
+    //call action on every key-value pair in the table
+    default void forEach(BiConsumer<? super Key, ? super Value> action) {
+        MapCursor<Key, Value> cursor = cursor();
+        while (cursor.advance())
+            action.accept(cursor.key(), cursor.value());
+    }
+
+    //spliterator over the key-value pairs in the table
+    default Spliterator<Map.Entry<Key, Value>> spliterator() {
+        MapCursor<Key, Value> cursor = cursor();
+        return new Spliterators.AbstractSpliterator<Map.Entry<Key, Value>>(size(),
+                Spliterator.DISTINCT | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Map.Entry<Key, Value>> action) {
+                if (!cursor.advance())
+                    return false;
+                action.accept(new AbstractMap.SimpleImmutableEntry<>(cursor.key(), cursor.value()));
+                return true;
+            }
+        };
+    }
+
+    //stream of the key-value pairs in the table; call parallel() on it to split the work
+    default Stream<Map.Entry<Key, Value>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    //call action on every key-value pair, in parallel once size() reaches parallelismThreshold
+    default void forEach(long parallelismThreshold, BiConsumer<? super Key, ? super Value> action) {
+        stream(parallelismThreshold).forEach(e -> action.accept(e.getKey(), e.getValue()));
+    }
+
+    //transformer applied to every pair and the non-null results combined with reducer,
+    //or null if there are none; in parallel once size() reaches parallelismThreshold
+    default <U> U reduce(long parallelismThreshold, BiFunction<? super Key, ? super Value, ? extends U> transformer,
+            BinaryOperator<U> reducer) {
+        return stream(parallelismThreshold)
+                .<U>map(e -> transformer.apply(e.getKey(), e.getValue()))
+                .filter(Objects::nonNull)
+                .reduce(reducer)
+                .orElse(null);
+    }
+
+    //a non-null result of searchFunction on some pair, or null if there is none;
+    //in parallel once size() reaches parallelismThreshold
+    default <U> U search(long parallelismThreshold, BiFunction<? super Key, ? super Value, ? extends U> searchFunction) {
+        return stream(parallelismThreshold)
+                .<U>map(e -> searchFunction.apply(e.getKey(), e.getValue()))
+                .filter(Objects::nonNull)
+                .findAny()
+                .orElse(null);
+    }
+
+    private Stream<Map.Entry<Key, Value>> stream(long parallelismThreshold) {
+        return StreamSupport.stream(spliterator(), size() >= parallelismThreshold);
+    }
+
+    //write a snapshot of every key-value pair to out; see SymbolTableSnapshot for the format
+    default void writeTo(WritableByteChannel out, Codec<? super Key> keyCodec, Codec<? super Value> valueCodec)
+            throws IOException {
+        SymbolTableSnapshot.write(this, out, keyCodec, valueCodec);
+    }
+
+    //put every key-value pair of the snapshot read from in into the table
+    default void readFrom(ReadableByteChannel in, Codec<? extends Key> keyCodec, Codec<? extends Value> valueCodec)
+            throws IOException {
+        SymbolTableSnapshot.read(this, in, keyCodec, valueCodec);
+    }
+
+    //put keys[i]-vals[i] into the table for every i
+    default void putAll(Key[] keys, Value[] vals) {
+        if (keys.length != vals.length)
+            throw new IllegalArgumentException("keys and vals must have the same length");
+        for (int i = 0; i < keys.length; i++)
+            put(keys[i], vals[i]);
+    }
+
+    //put every pair of pairs into the table, later pairs winning over earlier ones with the same key
+    default void putAll(Collection<? extends Map.Entry<? extends Key, ? extends Value>> pairs) {
+        for (Map.Entry<? extends Key, ? extends Value> pair : pairs)
+            put(pair.getKey(), pair.getValue());
+    }
+
+    //store the value paired with keys[i] (or null) in vals[i], and return vals
+    default Value[] getAll(Key[] keys, Value[] vals) {
+        if (vals.length < keys.length)
+            throw new IllegalArgumentException("vals is shorter than keys");
+        for (int i = 0; i < keys.length; i++)
+            vals[i] = get(keys[i]);
+        return vals;
+    }
+
+    //remove every key in keys (and its value) from table
+    default void deleteAll(Key[] keys) {
+        for (Key key : keys)
+            delete(key);
+    }
 }
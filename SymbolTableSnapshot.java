@@ -0,0 +1,201 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot format behind SymbolTable.writeTo and readFrom. A snapshot is
+ *   header:  magic "SKST" (int), format version (int), number of pairs (long)
+ *   records: for every pair, key length (int), key bytes, value length (int), value bytes
+ *   trailer: CRC-32C of the header and records (int)
+ * with all numbers big-endian. Keys and values are turned into bytes by Codecs, and
+ * no record may be longer than MAX_RECORD bytes.
+ * Reading checks the trailer before anything is put into the table, then adds every
+ * pair with a single putAll, so the table is sized once for the whole snapshot.
+ * Records are decoded as they are read, before the trailer is reached, so a codec
+ * that fails on corrupt bytes is reported as an IOException like any other damage.
+ *
+ * @author Ian Skelskey
+ */
+final class SymbolTableSnapshot {
+
+    private static final int MAGIC = 0x534B5354; // "SKST"
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int FIRST_BATCH = 1 << 16; // pairs read before the list has to grow
+    private static final int MAX_RECORD = 1 << 26; // bytes in one key or value
+
+    private SymbolTableSnapshot() {
+    }
+
+    //write every key-value pair of st to out
+    static <Key, Value> void write(SymbolTable<Key, Value> st, WritableByteChannel out,
+            Codec<? super Key> keyCodec, Codec<? super Value> valueCodec) throws IOException {
+        Output output = new Output(out);
+        long count = st.size();
+        output.buf.putInt(MAGIC).putInt(VERSION).putLong(count);
+
+        long written = 0;
+        MapCursor<Key, Value> cursor = st.cursor();
+        while (cursor.advance()) {
+            output.record(cursor.key(), keyCodec);
+            output.record(cursor.value(), valueCodec);
+            written++;
+        }
+        if (written != count)
+            throw new IllegalStateException("table changed while it was being written");
+
+        output.flush();
+        output.buf.putInt((int) output.crc.getValue());
+        output.flush();
+    }
+
+    //put every key-value pair read from in into st
+    static <Key, Value> void read(SymbolTable<Key, Value> st, ReadableByteChannel in,
+            Codec<? extends Key> keyCodec, Codec<? extends Value> valueCodec) throws IOException {
+        Input input = new Input(in);
+        if (input.readInt() != MAGIC)
+            throw new IOException("not a symbol table snapshot");
+        int version = input.readInt();
+        if (version != VERSION)
+            throw new IOException("unsupported snapshot version " + version);
+        long count = input.readLong();
+        if (count < 0 || count > Integer.MAX_VALUE - 8)
+            throw new IOException("corrupt snapshot: " + count + " pairs");
+
+        // grown as records arrive, so a corrupt count cannot allocate a huge list up front
+        List<Map.Entry<Key, Value>> pairs = new ArrayList<>((int) Math.min(count, FIRST_BATCH));
+        for (long i = 0; i < count; i++) {
+            Key key = input.record(keyCodec);
+            pairs.add(new AbstractMap.SimpleImmutableEntry<>(key, input.record(valueCodec)));
+        }
+
+        int crc = (int) input.crc.getValue();
+        input.need(4);
+        if (input.buf.getInt() != crc)
+            throw new IOException("snapshot checksum does not match");
+
+        st.putAll(pairs);
+    }
+
+    private static class Output {
+        private final WritableByteChannel channel;
+        private final CRC32C crc = new CRC32C(); // of every byte flushed so far
+        private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Output(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        // value's bytes preceded by their length
+        <T> void record(T value, Codec<? super T> codec) throws IOException {
+            while (true) {
+                if (buf.remaining() < 4)
+                    flush();
+
+                int start = buf.position();
+                try {
+                    buf.position(start + 4);
+                    codec.write(value, buf);
+                    int length = buf.position() - start - 4;
+                    if (length > MAX_RECORD)
+                        throw new IOException("record of more than " + MAX_RECORD + " bytes");
+                    buf.putInt(start, length);
+                    return;
+                } catch (BufferOverflowException e) {
+                    // try again in an empty buffer, or a bigger one if it was already empty
+                    buf.position(start);
+                    if (start > 0)
+                        flush();
+                    else if (buf.capacity() > MAX_RECORD)
+                        throw new IOException("record of more than " + MAX_RECORD + " bytes");
+                    else
+                        buf = ByteBuffer.allocate(2 * buf.capacity());
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining())
+                channel.write(buf);
+            buf.clear();
+        }
+    }
+
+    private static class Input {
+        private final ReadableByteChannel channel;
+        private final CRC32C crc = new CRC32C(); // of every byte read so far
+        private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        private long unread = Long.MAX_VALUE; // bytes left in the channel, when it knows
+
+        Input(ReadableByteChannel channel) throws IOException {
+            this.channel = channel;
+            if (channel instanceof SeekableByteChannel) {
+                SeekableByteChannel file = (SeekableByteChannel) channel;
+                unread = file.size() - file.position();
+            }
+        }
+
+        // make sure n bytes are waiting at buf's position
+        void need(int n) throws IOException {
+            if (buf.remaining() >= n)
+                return;
+
+            if (n > buf.capacity()) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(n, 2 * buf.capacity()));
+                bigger.put(buf);
+                buf = bigger;
+            } else {
+                buf.compact();
+            }
+            while (buf.position() < n) {
+                int read = channel.read(buf);
+                if (read < 0)
+                    throw new EOFException("snapshot is truncated");
+                unread -= read;
+            }
+            buf.flip();
+        }
+
+        int readInt() throws IOException {
+            return take(4).getInt();
+        }
+
+        long readLong() throws IOException {
+            return take(8).getLong();
+        }
+
+        // a value read from its length-prefixed bytes
+        <T> T record(Codec<? extends T> codec) throws IOException {
+            // checked before anything is allocated, since the checksum comes last
+            int length = readInt();
+            if (length < 0 || length > MAX_RECORD || length - buf.remaining() > unread)
+                throw new IOException("corrupt snapshot: record of " + length + " bytes");
+            ByteBuffer bytes = take(length);
+            try {
+                return codec.read(bytes);
+            } catch (RuntimeException e) {
+                throw new IOException("corrupt snapshot: record could not be decoded", e);
+            }
+        }
+
+        // the next n bytes, counted into the checksum
+        private ByteBuffer take(int n) throws IOException {
+            need(n);
+            ByteBuffer bytes = buf.slice().limit(n);
+            buf.position(buf.position() + n);
+            crc.update(bytes.duplicate());
+            return bytes;
+        }
+    }
+}
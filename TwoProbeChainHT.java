@@ -1,107 +1,219 @@
-
 /**
  * TwoProbeChainHT class
  * Defined as: making each place in the array store a collection of all the elements that have that hash.
- * Stores a linked list of all elements hashed to that location
- *  at every array position to resolve collisions.
+ * Every key has two candidate buckets from two independent hashes and is added to
+ * whichever currently holds fewer elements, which keeps the longest bucket very short.
+ * Each bucket is a small array of alternating keys and values, allocated the first
+ * time something is stored there.
  *
  * @author Ian Skelskey
- * @version 1.0
+ * @version 1.1
  */
-import java.util.LinkedList;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 public class TwoProbeChainHT<Key, Value> implements SymbolTable<Key, Value> {
 
-    private int M; // hash table size
+    private static final int DEFAULT_SIZE = 1024;
+    private static final int MAX_AVERAGE = 2; // elements per bucket before doubling
+    private static final int BUCKET_START = 4; // elements a new bucket has room for
+
+    private int M; // hash table size, always a power of two
     private int N; // number of key-value pairs
 
-    private LinkedList<Entry>[] pairs;
+    private Object[][] buckets; // key j of bucket b is buckets[b][2j], its value buckets[b][2j + 1]
+    private int[] counts; // elements in each bucket
+
+    private final HashStrategy<? super Key> hasher;
 
     TwoProbeChainHT() {
-        this(997); // large prime number
+        this(DEFAULT_SIZE);
     }
 
     TwoProbeChainHT(int M) {
-        this.M = M;
-        this.N = 0;
-
-        this.pairs = (LinkedList<Entry>[]) new LinkedList[M];
+        this(M, HashStrategy.murmur3());
+    }
 
-        for (int i = 0; i < M; i++) {
-            this.pairs[i] = new LinkedList<>();
+    TwoProbeChainHT(int M, HashStrategy<? super Key> hasher) {
+        if (M < 1) {
+            throw new IllegalArgumentException("size must be positive");
         }
 
+        this.M = Integer.highestOneBit(Math.max(2, M) * 2 - 1); // round up to a power of two
+        this.N = 0;
+        this.hasher = hasher;
+
+        this.buckets = new Object[this.M][];
+        this.counts = new int[this.M];
+    }
+
+    // both bucket indexes come from one 64-bit hash, remixed so that the high half
+    // is spread even when the strategy's is not (plain() only sign-extends hashCode):
+    // the low half picks the first bucket and the high half the second
+    private long mix(Key key) {
+        long z = hasher.hash(key) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 32)) * 0xD6E8FEB86659FD93L;
+        return z ^ (z >>> 32);
     }
 
-    private int hash(Key key) {
-        return (key.hashCode() & 0x7fffffff) % M;
+    private int hash(long z) {
+        return (int) z & (M - 1);
     }
 
-    private int hash2(Key key) {
-        return (((key.hashCode() & 0x7fffffff) % M) * 31) % M;
+    private int hash2(long z) {
+        return (int) (z >>> 32) & (M - 1);
     }
 
     // put key-value pair into the table
     @Override
     public void put(Key key, Value val) {
-
-        for (int i = 0; i < pairs[hash(key)].size(); i++) {
-            if (pairs[hash(key)].get(i).getKey().equals(key)) {
-                pairs[hash(key)].get(i).setValue(val);
-                return;
-            }
+        if (val == null || key == null) {
+            throw new IllegalArgumentException("value or key cannot be null");
         }
 
-        for (int i = 0; i < pairs[hash2(key)].size(); i++) {
-            if (pairs[hash2(key)].get(i).getKey().equals(key)) {
-                pairs[hash2(key)].get(i).setValue(val);
-                return;
-            }
+        long z = mix(key);
+        int b1 = hash(z);
+        int b2 = hash2(z);
+
+        int j = find(b1, key);
+        if (j >= 0) {
+            buckets[b1][j + 1] = val;
+            return;
+        }
+        j = find(b2, key);
+        if (j >= 0) {
+            buckets[b2][j + 1] = val;
+            return;
         }
 
-        if (pairs[hash(key)].size() > pairs[hash2(key)].size()) {
-            pairs[hash2(key)].add(new Entry(key, val));
-        } else {
-            pairs[hash(key)].add(new Entry(key, val));
+        if (N + 1 > MAX_AVERAGE * M) {
+            resize(2 * M);
+            b1 = hash(z);
+            b2 = hash2(z);
         }
 
+        add(counts[b2] < counts[b1] ? b2 : b1, key, val);
         N++;
-
     }
 
     // get value paired with key
     @Override
     public Value get(Key key) {
-        for (int i = 0; i < pairs[hash(key)].size(); i++) {
-            if (pairs[hash(key)].get(i).getKey().equals(key)) {
-                return (Value) pairs[hash(key)].get(i).getValue();
-            }
+        long z = mix(key);
+        int b = hash(z);
+        int j = find(b, key);
+        if (j < 0) {
+            b = hash2(z);
+            j = find(b, key);
+        }
+        return j >= 0 ? (Value) buckets[b][j + 1] : null;
+    }
+
+    // remove key (and its value) from table
+    @Override
+    public void delete(Key key) {
+        remove(key, mix(key));
+    }
+
+    // spliterator over every key-value pair that splits the bucket array in halves;
+    // only the unsplit spliterator is SIZED
+    @Override
+    public Spliterator<Map.Entry<Key, Value>> spliterator() {
+        return new BucketSpliterator(buckets, counts, 0, M, N, true);
+    }
+
+    // put every keys[i]-vals[i] pair, growing the table at most once for the batch
+    @Override
+    public void putAll(Key[] keys, Value[] vals) {
+        if (keys.length != vals.length) {
+            throw new IllegalArgumentException("keys and vals must have the same length");
         }
 
-        for (int i = 0; i < pairs[hash2(key)].size(); i++) {
-            if (pairs[hash2(key)].get(i).getKey().equals(key)) {
-                return (Value) pairs[hash2(key)].get(i).getValue();
+        // hash the whole batch first so the bucket lookups below run back to back
+        long[] z = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            if (vals[i] == null || keys[i] == null) {
+                throw new IllegalArgumentException("value or key cannot be null");
             }
+            z[i] = mix(keys[i]);
+        }
+
+        reserve(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            store(z[i], keys[i], vals[i]);
         }
-        return null;
     }
 
-    // remove key (and its value) from table
+    // put every pair of pairs, growing the table at most once for the batch
     @Override
-    public void delete(Key key) {
-        for (int i = 0; i < pairs[hash(key)].size(); i++) {
-            if (pairs[hash(key)].get(i).getKey().equals(key)) {
-                pairs[hash(key)].remove(i);
-                N--;
+    public void putAll(Collection<? extends Map.Entry<? extends Key, ? extends Value>> pairs) {
+        for (Map.Entry<? extends Key, ? extends Value> pair : pairs) {
+            if (pair.getValue() == null || pair.getKey() == null) {
+                throw new IllegalArgumentException("value or key cannot be null");
             }
+        }
+
+        reserve(pairs.size());
+        for (Map.Entry<? extends Key, ? extends Value> pair : pairs) {
+            store(mix(pair.getKey()), pair.getKey(), pair.getValue());
+        }
+    }
+
+    // grow once so n more keys fit under MAX_AVERAGE
+    private void reserve(int n) {
+        int size = M;
+        while (N + n > MAX_AVERAGE * size) {
+            size *= 2;
+        }
+        if (size > M) {
+            resize(size);
+        }
+    }
+
+    // pair key (whose hash is z) with val, adding it to the emptier bucket if it is new
+    private void store(long z, Key key, Value val) {
+        int b1 = hash(z);
+        int b2 = hash2(z);
+        int j = find(b1, key);
+        if (j >= 0) {
+            buckets[b1][j + 1] = val;
+        } else if ((j = find(b2, key)) >= 0) {
+            buckets[b2][j + 1] = val;
+        } else {
+            add(counts[b2] < counts[b1] ? b2 : b1, key, val);
+            N++;
+        }
+    }
 
+    // store the value paired with keys[i] (or null) in vals[i], and return vals
+    @Override
+    public Value[] getAll(Key[] keys, Value[] vals) {
+        if (vals.length < keys.length) {
+            throw new IllegalArgumentException("vals is shorter than keys");
         }
 
-        for (int i = 0; i < pairs[hash2(key)].size(); i++) {
-            if (pairs[hash2(key)].get(i).equals(key)) {
-                pairs[hash2(key)].remove(i);
-                N--;
+        long[] z = mixAll(keys);
+        for (int i = 0; i < keys.length; i++) {
+            int b = hash(z[i]);
+            int j = find(b, keys[i]);
+            if (j < 0) {
+                b = hash2(z[i]);
+                j = find(b, keys[i]);
             }
+            vals[i] = j >= 0 ? (Value) buckets[b][j + 1] : null;
+        }
+        return vals;
+    }
+
+    // remove every key in keys (and its value) from table
+    @Override
+    public void deleteAll(Key[] keys) {
+        long[] z = mixAll(keys);
+        for (int i = 0; i < keys.length; i++) {
+            remove(keys[i], z[i]);
         }
     }
 
@@ -122,43 +234,195 @@ public class TwoProbeChainHT<Key, Value> implements SymbolTable<Key, Value> {
         return N;
     }
 
+    // all keys in the table, read from the buckets as they are iterated
     @Override
     public Iterable<Key> keys() {
-        LinkedList<Key> keyRing = new LinkedList<>();
-        for (int i = 0; i < M; i++) {
-            for (int j = 0; j < pairs[i].size(); j++) {
-                if (pairs[i] != null) {
-                    keyRing.add((Key) pairs[i].get(j).getKey());
-                }
+        return () -> cursor().keyIterator();
+    }
+
+    // cursor over every key-value pair
+    @Override
+    public MapCursor<Key, Value> cursor() {
+        return new Cursor();
+    }
+
+    // number of elements in the fullest bucket
+    public int maxBucketSize() {
+        int max = 0;
+        for (int b = 0; b < M; b++) {
+            max = Math.max(max, counts[b]);
+        }
+        return max;
+    }
+
+    // 64-bit hash of every key, computed in one pass before any bucket is read
+    private long[] mixAll(Key[] keys) {
+        long[] z = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            z[i] = mix(keys[i]);
+        }
+        return z;
+    }
+
+    // remove key (whose hash is z) from whichever of its buckets holds it
+    private void remove(Key key, long z) {
+        int b = hash(z);
+        int j = find(b, key);
+        if (j < 0) {
+            b = hash2(z);
+            j = find(b, key);
+        }
+        if (j < 0) {
+            return;
+        }
+
+        // fill the gap with the bucket's last element
+        Object[] bucket = buckets[b];
+        int last = 2 * --counts[b];
+        bucket[j] = bucket[last];
+        bucket[j + 1] = bucket[last + 1];
+        bucket[last] = null;
+        bucket[last + 1] = null;
+        N--;
+    }
+
+    // index of key within bucket b, or -1
+    private int find(int b, Key key) {
+        Object[] bucket = buckets[b];
+        for (int j = 0; j < 2 * counts[b]; j += 2) {
+            if (bucket[j].equals(key)) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    private void add(int b, Object key, Object val) {
+        Object[] bucket = buckets[b];
+        int j = 2 * counts[b];
+        if (bucket == null) {
+            bucket = buckets[b] = new Object[2 * BUCKET_START];
+        } else if (j == bucket.length) {
+            Object[] bigger = new Object[2 * bucket.length];
+            System.arraycopy(bucket, 0, bigger, 0, j);
+            bucket = buckets[b] = bigger;
+        }
+        bucket[j] = key;
+        bucket[j + 1] = val;
+        counts[b]++;
+    }
+
+    private void resize(int size) {
+        Object[][] oldBuckets = buckets;
+        int[] oldCounts = counts;
+
+        M = size;
+        buckets = new Object[M][];
+        counts = new int[M];
+
+        for (int b = 0; b < oldBuckets.length; b++) {
+            for (int j = 0; j < 2 * oldCounts[b]; j += 2) {
+                long z = mix((Key) oldBuckets[b][j]);
+                int b1 = hash(z);
+                int b2 = hash2(z);
+                add(counts[b2] < counts[b1] ? b2 : b1, oldBuckets[b][j], oldBuckets[b][j + 1]);
             }
         }
-        return keyRing;
     }
 
-    private class Entry<Key, Value> {
+    private class BucketSpliterator implements Spliterator<Map.Entry<Key, Value>> {
+        private final Object[][] buckets;
+        private final int[] counts;
+        private int b; // bucket being visited
+        private int j; // index of the next key within bucket b
+        private int end; // one past the last bucket to visit
+        private int est; // pairs left: exact while sized, an estimate after
+        private boolean sized; // true only for the top-level spliterator, before it splits
+
+        BucketSpliterator(Object[][] buckets, int[] counts, int b, int end, int est, boolean sized) {
+            this.buckets = buckets;
+            this.counts = counts;
+            this.b = b;
+            this.end = end;
+            this.est = est;
+            this.sized = sized;
+        }
 
-        private Key key;
-        private Value value;
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<Key, Value>> action) {
+            for (; b < end; b++, j = 0) {
+                if (j < 2 * counts[b]) {
+                    est = Math.max(0, est - 1);
+                    action.accept(new AbstractMap.SimpleImmutableEntry<>((Key) buckets[b][j], (Value) buckets[b][j + 1]));
+                    j += 2;
+                    return true;
+                }
+            }
+            return false;
+        }
 
-        public Entry(Key key, Value value) {
-            if (value == null || key == null) {
-                throw new IllegalArgumentException("value or key cannot be null");
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<Key, Value>> action) {
+            for (; b < end; b++, j = 0) {
+                for (; j < 2 * counts[b]; j += 2) {
+                    action.accept(new AbstractMap.SimpleImmutableEntry<>((Key) buckets[b][j], (Value) buckets[b][j + 1]));
+                }
+            }
+            est = 0;
+        }
+
+        // hand the second half of the buckets to a new spliterator; the pairs have no
+        // encounter order, and this one may already be part way through bucket b.
+        // The split is by bucket range, and how many pairs fall in a range is unknown
+        // without summing its counts, so neither half is SIZED and neither ever
+        // reports SUBSIZED
+        @Override
+        public Spliterator<Map.Entry<Key, Value>> trySplit() {
+            int mid = (b + end) >>> 1;
+            if (mid <= b) {
+                return null;
             }
 
-            this.key = key;
-            this.value = value;
+            est >>>= 1;
+            sized = false;
+            BucketSpliterator suffix = new BucketSpliterator(buckets, counts, mid, end, est, false);
+            end = mid;
+            return suffix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
         }
 
-        public Key getKey() {
-            return this.key;
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL | (sized ? Spliterator.SIZED : 0);
+        }
+    }
+
+    private class Cursor implements MapCursor<Key, Value> {
+        private int b; // bucket of the current pair
+        private int j = -2; // index of its key within the bucket
+
+        @Override
+        public boolean advance() {
+            for (j += 2; b < M; b++, j = 0) {
+                if (j < 2 * counts[b]) {
+                    return true;
+                }
+            }
+            return false;
         }
 
-        public Value getValue() {
-            return this.value;
+        @Override
+        public Key key() {
+            return (Key) buckets[b][j];
         }
 
-        public void setValue(Value val) {
-            this.value = val;
+        @Override
+        public Value value() {
+            return (Value) buckets[b][j + 1];
         }
     }
 